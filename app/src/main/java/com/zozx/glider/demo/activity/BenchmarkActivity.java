@@ -0,0 +1,318 @@
+package com.zozx.glider.demo.activity;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.Handler;
+import android.support.v7.app.AppCompatActivity;
+import android.util.Log;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.MultiTransformation;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.SimpleResource;
+import com.bumptech.glide.load.resource.bitmap.CenterCrop;
+import com.zozx.glider.CropShapeTransformation;
+import com.zozx.glider.Glider;
+import com.zozx.glider.GliderMetricsListener;
+import com.zozx.glider.GliderOption;
+import com.zozx.glider.LoadMetrics;
+import com.zozx.glider.TransformType;
+import com.zozx.glider.demo.R;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+import jp.wasabeef.glide.transformations.CropCircleTransformation;
+import jp.wasabeef.glide.transformations.CropSquareTransformation;
+import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
+
+/**
+ * benchmark of the hot path of {@link Glider#load(GliderOption)}, the results are shown and logged with tag "GliderBenchmark".
+ * setup: the cost of building the option and submitting the request, for each transform type with resource and string uri.
+ * transform: the fused {@link CropShapeTransformation} against the chain of wasabeef transformations.
+ * decode: the end-to-end decode and transform time of a local fixture image without memory and disk cache.
+ * open it from the main screen, or by "adb shell am start -n com.zozx.glider.demo/.activity.BenchmarkActivity".
+ */
+public class BenchmarkActivity extends AppCompatActivity {
+
+    private static final String TAG = "GliderBenchmark";
+    private static final int SETUP_WARM_UP = 200;
+    private static final int SETUP_ITERATIONS = 2000;
+    private static final int DECODE_ITERATIONS = 10;
+    private static final int TRANSFORM_WARM_UP = 5;
+    private static final int TRANSFORM_ITERATIONS = 50;
+    private static final int TRANSFORM_SIZE = 256;
+    private static final int FIXTURE_WIDTH = 2048;
+    private static final int FIXTURE_HEIGHT = 1536;
+    private static final int RADIUS = 16;
+
+    private final Handler handler = new Handler();
+    private ImageView imageView;
+    private TextView resultView;
+    private File fixture;
+    private String fixtureUri;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_benchmark);
+        imageView = (ImageView) findViewById(R.id.imageView);
+        resultView = (TextView) findViewById(R.id.resultView);
+        // wait for the size of the image view.
+        imageView.post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    fixture = createFixture();
+                    fixtureUri = Uri.fromFile(fixture).toString();
+                } catch (IOException e) {
+                    report("can't create fixture: " + e);
+                    return;
+                }
+                runSetupBenchmarks();
+                runTransformBenchmarks();
+                new DecodeBenchmark().next();
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacksAndMessages(null);
+    }
+
+    // ——————————————————————————————————————  setup  ——————————————————————————————————————————————
+
+    @SuppressWarnings("deprecation")
+    private void runSetupBenchmarks() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            Debug.startAllocCounting();
+        }
+        for (TransformType type : TransformType.values()) {
+            benchmarkSetup(type, true);
+            benchmarkSetup(type, false);
+        }
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            Debug.stopAllocCounting();
+        }
+        Glider.clear(imageView);
+    }
+
+    private void benchmarkSetup(TransformType type, boolean resource) {
+        for (int i = 0; i < SETUP_WARM_UP; i++) {
+            Glider.load(option(type, resource));
+        }
+        long[] times = new long[SETUP_ITERATIONS];
+        long allocations = allocationCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < SETUP_ITERATIONS; i++) {
+            long time = System.nanoTime();
+            Glider.load(option(type, resource));
+            times[i] = System.nanoTime() - time;
+        }
+        long total = System.nanoTime() - start;
+        allocations = allocationCount() - allocations;
+        Arrays.sort(times);
+        report(String.format(Locale.US, "setup  %-12s %-3s %8.0f ops/s %7.1f allocs/call p50 %6.1fus p99 %6.1fus",
+                type, resource ? "res" : "uri", SETUP_ITERATIONS * 1e9 / total, allocations / (double) SETUP_ITERATIONS,
+                times[SETUP_ITERATIONS / 2] / 1000.0, times[SETUP_ITERATIONS * 99 / 100] / 1000.0));
+    }
+
+    private GliderOption option(TransformType type, boolean resource) {
+        GliderOption.Builder builder = resource
+                ? new GliderOption.Builder(imageView, R.mipmap.ic_launcher)
+                : new GliderOption.Builder(imageView, fixtureUri);
+        return transform(builder, type).create();
+    }
+
+    private static GliderOption.Builder transform(GliderOption.Builder builder, TransformType type) {
+        switch (type) {
+            case CIRCLE:
+                return builder.transformCircle();
+            case ROUND:
+                return builder.transformRound(RADIUS);
+            case SQUARE:
+                return builder.transformSquare();
+            case SQUARE_ROUND:
+                return builder.transformSquareRound(RADIUS);
+            default:
+                return builder;
+        }
+    }
+
+    /**
+     * the count of allocated objects, of the process since api 23, otherwise of the main thread.
+     */
+    @SuppressWarnings("deprecation")
+    private static long allocationCount() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            String count = Debug.getRuntimeStat("art.gc.objects-allocated");
+            return count == null ? 0 : Long.parseLong(count);
+        }
+        return Debug.getThreadAllocCount();
+    }
+
+    // ——————————————————————————————————————  transform  ——————————————————————————————————————————
+
+    private void runTransformBenchmarks() {
+        BitmapPool pool = Glide.get(this).getBitmapPool();
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = 2;
+        Bitmap source = BitmapFactory.decodeFile(fixture.getAbsolutePath(), options);
+        for (TransformType type : TransformType.values()) {
+            if (type == TransformType.NONE) {
+                continue;
+            }
+            benchmarkTransform(type, "fused", new CropShapeTransformation(pool, type, RADIUS), source);
+            benchmarkTransform(type, "chain", wasabeef(type, pool), source);
+        }
+        source.recycle();
+    }
+
+    private void benchmarkTransform(TransformType type, String name, Transformation<Bitmap> transformation, Bitmap source) {
+        Resource<Bitmap> resource = new SimpleResource<>(source);
+        for (int i = 0; i < TRANSFORM_WARM_UP; i++) {
+            transformOnce(transformation, resource);
+        }
+        long[] times = new long[TRANSFORM_ITERATIONS];
+        long allocations = allocationCount();
+        for (int i = 0; i < TRANSFORM_ITERATIONS; i++) {
+            long time = System.nanoTime();
+            transformOnce(transformation, resource);
+            times[i] = System.nanoTime() - time;
+        }
+        allocations = allocationCount() - allocations;
+        Arrays.sort(times);
+        report(String.format(Locale.US, "transform %-12s %-5s p50 %6.2fms p99 %6.2fms %7.1f allocs/call",
+                type, name, times[TRANSFORM_ITERATIONS / 2] / 1e6, times[TRANSFORM_ITERATIONS * 99 / 100] / 1e6,
+                allocations / (double) TRANSFORM_ITERATIONS));
+    }
+
+    /**
+     * transform and return the result to the bitmap pool, the same as glide does after the result displayed.
+     */
+    private static void transformOnce(Transformation<Bitmap> transformation, Resource<Bitmap> resource) {
+        Resource<Bitmap> result = transformation.transform(resource, TRANSFORM_SIZE, TRANSFORM_SIZE);
+        if (result != resource) {
+            result.recycle();
+        }
+    }
+
+    /**
+     * the transformations used by glider before {@link CropShapeTransformation}.
+     */
+    private static Transformation<Bitmap> wasabeef(TransformType type, BitmapPool pool) {
+        switch (type) {
+            case CIRCLE:
+                return new CropCircleTransformation(pool);
+            case ROUND:
+                return new MultiTransformation<>(new CenterCrop(pool), new RoundedCornersTransformation(pool, RADIUS, 0));
+            case SQUARE_ROUND:
+                return new MultiTransformation<>(new CropSquareTransformation(pool), new RoundedCornersTransformation(pool, RADIUS, 0));
+            case SQUARE:
+            default:
+                return new CropSquareTransformation(pool);
+        }
+    }
+
+    // ——————————————————————————————————————  decode  —————————————————————————————————————————————
+
+    /**
+     * load the fixture one by one with each transform type, and record the metrics of the requests.
+     */
+    private class DecodeBenchmark implements GliderMetricsListener {
+
+        private final TransformType[] types = TransformType.values();
+        private final long[] decodeTimes = new long[DECODE_ITERATIONS];
+        private final long[] totalTimes = new long[DECODE_ITERATIONS];
+        private int typeIndex;
+        private int iteration;
+
+        @Override
+        public void onMetrics(LoadMetrics metrics) {
+            if (!metrics.isSuccess()) {
+                report("decode " + types[typeIndex] + " failed: " + metrics.failure());
+                return;
+            }
+            decodeTimes[iteration] = metrics.decodeTime();
+            totalTimes[iteration] = metrics.totalTime();
+            iteration++;
+            if (iteration == DECODE_ITERATIONS) {
+                Arrays.sort(decodeTimes);
+                Arrays.sort(totalTimes);
+                report(String.format(Locale.US, "decode %-12s decode p50 %4dms max %4dms, total p50 %4dms max %4dms",
+                        types[typeIndex], decodeTimes[DECODE_ITERATIONS / 2], decodeTimes[DECODE_ITERATIONS - 1],
+                        totalTimes[DECODE_ITERATIONS / 2], totalTimes[DECODE_ITERATIONS - 1]));
+                iteration = 0;
+                typeIndex++;
+            }
+            // don't start the next load in the callback of glide.
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    next();
+                }
+            });
+        }
+
+        void next() {
+            if (typeIndex == types.length) {
+                report("done");
+                return;
+            }
+            Glide.get(BenchmarkActivity.this).clearMemory();
+            Glider.load(transform(new GliderOption.Builder(imageView, fixture), types[typeIndex])
+                    .diskCache(false)
+                    .crossFade(0)
+                    .metricsListener(this)
+                    .create());
+        }
+    }
+
+    // ——————————————————————————————————————  util  ———————————————————————————————————————————————
+
+    /**
+     * create a large jpeg image in cache dir as the fixture.
+     */
+    private File createFixture() throws IOException {
+        File file = new File(getCacheDir(), "benchmark_fixture.jpg");
+        if (file.exists()) {
+            return file;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(FIXTURE_WIDTH, FIXTURE_HEIGHT, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint();
+        paint.setShader(new LinearGradient(0, 0, FIXTURE_WIDTH, FIXTURE_HEIGHT, Color.RED, Color.BLUE, Shader.TileMode.CLAMP));
+        new Canvas(bitmap).drawRect(0, 0, FIXTURE_WIDTH, FIXTURE_HEIGHT, paint);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 90, out);
+        } finally {
+            out.close();
+            bitmap.recycle();
+        }
+        return file;
+    }
+
+    private void report(String result) {
+        Log.i(TAG, result);
+        resultView.append(result + "\n");
+    }
+}
@@ -1,7 +1,9 @@
 package com.zozx.glider.demo.activity;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
+import android.view.View;
 import android.widget.ImageView;
 
 import com.bumptech.glide.Glide;
@@ -34,5 +36,12 @@ public class MainActivity extends AppCompatActivity {
                 .transformCircle()
 //                .listener()
                 .create());
+
+        findViewById(R.id.benchmarkButton).setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                startActivity(new Intent(MainActivity.this, BenchmarkActivity.class));
+            }
+        });
     }
 }
@@ -0,0 +1,4 @@
+# the rules applied to the apps using glider-okhttp.
+
+# glide creates the modules declared in the manifest by reflection.
+-keep public class com.zozx.glider.okhttp.GliderOkHttpModule
@@ -0,0 +1,92 @@
+package com.zozx.glider.okhttp;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * the OkHttp client config of glider, HTTP/2 is used when the server supports.
+ * all the setters should be called before glide initialized, such as in {@link android.app.Application#onCreate()}.
+ */
+@SuppressWarnings("unused")
+public final class GliderOkHttp {
+
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+    private static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private static int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private static long keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+    private static int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    private static long connectTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private static long readTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private static long writeTimeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private static OkHttpClient client;
+
+    private GliderOkHttp() {
+    }
+
+    /**
+     * set the connection pool of the client.
+     *
+     * @param maxIdleConnections the max count of idle connections to keep.
+     * @param keepAliveMillis    the time to keep a idle connection.
+     */
+    public static synchronized void setConnectionPool(int maxIdleConnections, long keepAliveMillis) {
+        GliderOkHttp.maxIdleConnections = maxIdleConnections;
+        GliderOkHttp.keepAliveMillis = keepAliveMillis;
+    }
+
+    /**
+     * set the max count of concurrent requests to each host, the total count is limited by the threads of glide.
+     *
+     * @param maxRequestsPerHost the max count, 0 or lower for no limit.
+     */
+    public static synchronized void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        GliderOkHttp.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * set the timeouts of each request.
+     *
+     * @param connectTimeoutMillis the connect timeout.
+     * @param readTimeoutMillis    the read timeout.
+     * @param writeTimeoutMillis   the write timeout.
+     */
+    public static synchronized void setTimeouts(long connectTimeoutMillis, long readTimeoutMillis, long writeTimeoutMillis) {
+        GliderOkHttp.connectTimeoutMillis = connectTimeoutMillis;
+        GliderOkHttp.readTimeoutMillis = readTimeoutMillis;
+        GliderOkHttp.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    /**
+     * set a client built by yourself, the other configs will be ignored.
+     *
+     * @param client the client, null to build with the configs.
+     */
+    public static synchronized void setClient(OkHttpClient client) {
+        GliderOkHttp.client = client;
+    }
+
+    /**
+     * @return the client used by glide, built with the configs at the first call.
+     */
+    public static synchronized OkHttpClient client() {
+        if (client == null) {
+            OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            if (maxRequestsPerHost > 0) {
+                // glide executes the calls synchronously, which are not limited by the dispatcher.
+                builder.addInterceptor(new HostLimitInterceptor(maxRequestsPerHost));
+            }
+            client = builder
+                    .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+                    .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .build();
+        }
+        return client;
+    }
+}
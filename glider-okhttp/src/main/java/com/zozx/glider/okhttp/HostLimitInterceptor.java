@@ -0,0 +1,102 @@
+package com.zozx.glider.okhttp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * limit the count of concurrent requests to each host, a request holds its permit until the body closed.
+ */
+class HostLimitInterceptor implements Interceptor {
+
+    private final int maxRequestsPerHost;
+    private final Map<String, Semaphore> semaphores = new HashMap<>();
+
+    HostLimitInterceptor(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Semaphore semaphore = semaphore(chain.request().url().host());
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the host");
+        }
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+        if (response.body() == null) {
+            semaphore.release();
+            return response;
+        }
+        return response.newBuilder().body(new ReleasingBody(response.body(), semaphore)).build();
+    }
+
+    private synchronized Semaphore semaphore(String host) {
+        Semaphore semaphore = semaphores.get(host);
+        if (semaphore == null) {
+            semaphore = new Semaphore(maxRequestsPerHost);
+            semaphores.put(host, semaphore);
+        }
+        return semaphore;
+    }
+
+    /**
+     * response body releases the permit of the host once when closed.
+     */
+    private static class ReleasingBody extends ResponseBody {
+
+        private final ResponseBody body;
+        private final BufferedSource source;
+
+        ReleasingBody(ResponseBody body, final Semaphore semaphore) {
+            this.body = body;
+            final AtomicBoolean released = new AtomicBoolean();
+            this.source = Okio.buffer(new ForwardingSource(body.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.zozx.glider.okhttp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HostLimitInterceptorTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("image"));
+        }
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        GliderOkHttp.setClient(null);
+    }
+
+    @Test
+    public void waitsUntilTheBodyOfTheHostClosed() throws Exception {
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new HostLimitInterceptor(1)).build();
+        Response first = client.newCall(request()).execute();
+
+        CountDownLatch second = executeAsync(client);
+        assertFalse(second.await(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, server.getRequestCount());
+
+        first.body().close();
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void releasesThePermitOnceWhenClosedTwice() throws Exception {
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new HostLimitInterceptor(1)).build();
+        Response first = client.newCall(request()).execute();
+        first.body().close();
+        first.body().close();
+
+        Response second = client.newCall(request()).execute();
+        CountDownLatch third = executeAsync(client);
+        assertFalse(third.await(300, TimeUnit.MILLISECONDS));
+
+        second.body().close();
+        assertTrue(third.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void clientIsBuiltWithTheConfigs() throws Exception {
+        GliderOkHttp.setClient(null);
+        GliderOkHttp.setMaxRequestsPerHost(2);
+        GliderOkHttp.setTimeouts(1000, 2000, 3000);
+        OkHttpClient client = GliderOkHttp.client();
+
+        assertEquals(1000, client.connectTimeoutMillis());
+        assertEquals(2000, client.readTimeoutMillis());
+        assertEquals(3000, client.writeTimeoutMillis());
+        boolean limited = false;
+        for (Interceptor interceptor : client.interceptors()) {
+            limited |= interceptor instanceof HostLimitInterceptor;
+        }
+        assertTrue(limited);
+
+        Response response = client.newCall(request()).execute();
+        assertEquals("image", response.body().string());
+    }
+
+    private Request request() {
+        return new Request.Builder().url(server.url("/image.jpg")).build();
+    }
+
+    private CountDownLatch executeAsync(final OkHttpClient client) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    client.newCall(request()).execute().body().close();
+                    latch.countDown();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }).start();
+        return latch;
+    }
+}
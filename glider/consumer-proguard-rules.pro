@@ -0,0 +1,4 @@
+# the rules applied to the apps using glider.
+
+# glide creates the modules declared in the manifest by reflection.
+-keep public class com.zozx.glider.GliderModule
@@ -0,0 +1,135 @@
+package com.zozx.glider;
+
+import android.app.Activity;
+import android.widget.ImageView;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * the jvm benchmark of the request setup cost of {@link Glider#load(GliderOption)} on the main thread,
+ * for each transform type with a drawable resource and a string uri.
+ * the numbers are of the jvm, only to compare the changes of the setup path, the device numbers are
+ * measured by the benchmark activity of the demo app.
+ * it's not a unit test, run it by "gradlew :glider:testDebugUnitTest -Pbenchmark",
+ * the numbers are written to build/reports/benchmark/setup.txt of the module.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class GliderLoadBenchmarkTest {
+
+    private static final int WARM_UP_ITERATIONS = 200;
+    private static final int ITERATIONS = 2000;
+    private static final int RADIUS = 20;
+    private static final String URI = "http://img.example.com/a.jpg";
+    private static final File REPORT = new File("build/reports/benchmark/setup.txt");
+
+    private static final StringBuilder results = new StringBuilder();
+
+    private ImageView imageView;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        imageView = new ImageView(activity);
+        activity.setContentView(imageView);
+    }
+
+    @AfterClass
+    public static void report() throws IOException {
+        if (!REPORT.getParentFile().isDirectory() && !REPORT.getParentFile().mkdirs()) {
+            throw new IOException("can't create " + REPORT.getParentFile());
+        }
+        Writer writer = new FileWriter(REPORT);
+        try {
+            writer.write(results.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void setupOfResources() {
+        for (TransformType type : TransformType.values()) {
+            benchmark(type, true);
+        }
+    }
+
+    @Test
+    public void setupOfUris() {
+        for (TransformType type : TransformType.values()) {
+            benchmark(type, false);
+        }
+    }
+
+    private void benchmark(TransformType type, boolean resource) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            Glider.load(option(type, resource));
+        }
+        long[] times = new long[ITERATIONS];
+        long allocations = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long time = System.nanoTime();
+            Glider.load(option(type, resource));
+            times[i] = System.nanoTime() - time;
+        }
+        long total = System.nanoTime() - start;
+        allocations = allocatedBytes() - allocations;
+        Arrays.sort(times);
+        results.append(String.format(Locale.US, "setup  %-12s %-3s %8.0f ops/s %8.0f bytes/call p50 %6.1fus p99 %6.1fus%n",
+                type, resource ? "res" : "uri", ITERATIONS * 1e9 / total, allocations / (double) ITERATIONS,
+                times[ITERATIONS / 2] / 1000.0, times[ITERATIONS * 99 / 100] / 1000.0));
+        assertNotNull(imageView.getTag(R.id.glide_tag));
+    }
+
+    private GliderOption option(TransformType type, boolean resource) {
+        GliderOption.Builder builder = resource
+                ? new GliderOption.Builder(imageView, android.R.drawable.ic_menu_gallery)
+                : new GliderOption.Builder(imageView, URI);
+        switch (type) {
+            case CIRCLE:
+                builder.transformCircle();
+                break;
+            case ROUND:
+                builder.transformRound(RADIUS);
+                break;
+            case SQUARE:
+                builder.transformSquare();
+                break;
+            case SQUARE_ROUND:
+                builder.transformSquareRound(RADIUS);
+                break;
+            default:
+                break;
+        }
+        return builder.create();
+    }
+
+    /**
+     * the bytes allocated by the current thread, -1 if not supported by the jvm.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
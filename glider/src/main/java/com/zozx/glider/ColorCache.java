@@ -0,0 +1,215 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.support.v4.util.LruCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * the cache of the average colors of images for the color placeholders, see {@link GliderOption.Builder#colorPlaceholder(boolean)}.
+ * the colors are kept by the 64 bit hash of the image keys, and saved to a compact file of 12 bytes per image
+ * in the cache dir, so the placeholders are colored at the next launch too.
+ * the file is loaded and saved on the background thread of {@link GliderExecutors}.
+ */
+final class ColorCache {
+
+    private static final String FILE_NAME = "glider_colors";
+    private static final int MAGIC = 0x474c4331;
+    private static final int MAX_SIZE = 4096;
+    private static final long SAVE_DELAY = 3000;
+    private static final int SAMPLES = 8;
+
+    private static volatile ColorCache instance;
+
+    private final File file;
+    private final LruCache<Long, Integer> colors = new LruCache<>(MAX_SIZE);
+    private final Runnable saveRunnable = new Runnable() {
+        @Override
+        public void run() {
+            GliderExecutors.background().execute(new Runnable() {
+                @Override
+                public void run() {
+                    save();
+                }
+            });
+        }
+    };
+    private boolean savePending;
+
+    private ColorCache(File file) {
+        this.file = file;
+        GliderExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+    }
+
+    static ColorCache get(Context context) {
+        if (instance == null) {
+            synchronized (ColorCache.class) {
+                if (instance == null) {
+                    instance = new ColorCache(new File(context.getApplicationContext().getCacheDir(), FILE_NAME));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param key the key of the image.
+     * @return the color of the image, 0 if not cached.
+     */
+    int color(String key) {
+        Integer color = colors.get(hash(key));
+        return color != null ? color : 0;
+    }
+
+    /**
+     * sample the average color of the bitmap if the image has no color cached.
+     *
+     * @param key    the key of the image.
+     * @param bitmap the bitmap of the image.
+     */
+    void update(String key, Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        Long hash = hash(key);
+        if (colors.get(hash) != null) {
+            return;
+        }
+        int color = sample(bitmap);
+        if (color == 0) {
+            return;
+        }
+        colors.put(hash, color);
+        scheduleSave();
+    }
+
+    private void scheduleSave() {
+        synchronized (this) {
+            if (savePending) {
+                return;
+            }
+            savePending = true;
+        }
+        GliderExecutors.main().postDelayed(saveRunnable, SAVE_DELAY);
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            int count = Math.min(in.readInt(), MAX_SIZE);
+            for (int i = 0; i < count; i++) {
+                long hash = in.readLong();
+                int color = in.readInt();
+                // keep the colors sampled before the file loaded.
+                if (colors.get(hash) == null) {
+                    colors.put(hash, color);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private void save() {
+        synchronized (this) {
+            savePending = false;
+        }
+        // the snapshot is ordered from the least recently used, so the order is kept when loaded.
+        Map<Long, Integer> snapshot = colors.snapshot();
+        File temp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(MAGIC);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Long, Integer> entry : snapshot.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            out.close();
+            out = null;
+            if (!temp.renameTo(file)) {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            temp.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    /**
+     * sample the average color of the opaque pixels on a grid of the bitmap.
+     *
+     * @return the opaque color, 0 if the bitmap has no opaque pixels sampled.
+     */
+    static int sample(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        int count = 0;
+        for (int y = 0; y < SAMPLES; y++) {
+            for (int x = 0; x < SAMPLES; x++) {
+                int pixel = bitmap.getPixel((2 * x + 1) * width / (2 * SAMPLES), (2 * y + 1) * height / (2 * SAMPLES));
+                if (Color.alpha(pixel) < 0x80) {
+                    continue;
+                }
+                red += Color.red(pixel);
+                green += Color.green(pixel);
+                blue += Color.blue(pixel);
+                count++;
+            }
+        }
+        return count == 0 ? 0 : Color.rgb(red / count, green / count, blue / count);
+    }
+
+    /**
+     * the 64 bit FNV-1a hash of the key.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0, length = key.length(); i < length; i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignored
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.bitmap.BitmapTransformation;
+
+/**
+ * crop, scale and shape a bitmap with a single draw of {@link BitmapShader}, the result bitmap is from the bitmap pool.
+ * <ul>
+ * <li>{@link TransformType#CIRCLE}: center crop a square and clip to circle.</li>
+ * <li>{@link TransformType#ROUND}: center crop to the target size and round the corners.</li>
+ * <li>{@link TransformType#SQUARE}: center crop a square.</li>
+ * <li>{@link TransformType#SQUARE_ROUND}: center crop a square and round the corners.</li>
+ * </ul>
+ * the square is not larger than the image or the larger side of the target.
+ */
+public class CropShapeTransformation extends BitmapTransformation {
+
+    private static final int PAINT_FLAGS = Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG;
+
+    private final TransformType type;
+    private final int radius;
+    private final String id;
+
+    public CropShapeTransformation(Context context, TransformType type, int radius) {
+        this(Glide.get(context).getBitmapPool(), type, radius);
+    }
+
+    public CropShapeTransformation(BitmapPool pool, TransformType type, int radius) {
+        super(pool);
+        if (type == TransformType.NONE) {
+            throw new IllegalArgumentException("type must not be NONE");
+        }
+        this.type = type;
+        this.radius = type == TransformType.ROUND || type == TransformType.SQUARE_ROUND ? radius : 0;
+        this.id = "CropShapeTransformation(type=" + type + ", radius=" + this.radius + ")";
+    }
+
+    @Override
+    protected Bitmap transform(BitmapPool pool, Bitmap toTransform, int outWidth, int outHeight) {
+        int sourceWidth = toTransform.getWidth();
+        int sourceHeight = toTransform.getHeight();
+        int width;
+        int height;
+        if (type == TransformType.ROUND) {
+            width = outWidth;
+            height = outHeight;
+        } else {
+            width = height = Math.min(Math.min(sourceWidth, sourceHeight), Math.max(outWidth, outHeight));
+        }
+        if (!type.isTransparent() && width == sourceWidth && height == sourceHeight) {
+            return toTransform;
+        }
+
+        Bitmap.Config config = type.isTransparent() || toTransform.getConfig() == null
+                ? Bitmap.Config.ARGB_8888 : toTransform.getConfig();
+        Bitmap result = pool.get(width, height, config);
+        if (result == null) {
+            result = Bitmap.createBitmap(width, height, config);
+        }
+
+        float scale = Math.max((float) width / sourceWidth, (float) height / sourceHeight);
+        Matrix matrix = new Matrix();
+        matrix.setScale(scale, scale);
+        matrix.postTranslate((width - sourceWidth * scale) / 2f, (height - sourceHeight * scale) / 2f);
+        BitmapShader shader = new BitmapShader(toTransform, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        shader.setLocalMatrix(matrix);
+        Paint paint = new Paint(PAINT_FLAGS);
+        paint.setShader(shader);
+
+        Canvas canvas = new Canvas(result);
+        switch (type) {
+            case CIRCLE:
+                float r = width / 2f;
+                canvas.drawCircle(r, r, r, paint);
+                break;
+            case ROUND:
+            case SQUARE_ROUND:
+                canvas.drawRoundRect(new RectF(0, 0, width, height), radius, radius, paint);
+                break;
+            default:
+                canvas.drawRect(0, 0, width, height, paint);
+                break;
+        }
+        if (type.isTransparent()) {
+            result.setHasAlpha(true);
+        }
+        return result;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,128 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.ParcelFileDescriptor;
+import android.support.v4.util.ArrayMap;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.model.ImageVideoWrapper;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.bitmap.FileDescriptorBitmapDecoder;
+import com.bumptech.glide.load.resource.bitmap.ImageVideoBitmapDecoder;
+import com.bumptech.glide.load.resource.bitmap.StreamBitmapDecoder;
+import com.bumptech.glide.load.resource.file.FileToStreamDecoder;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+import com.bumptech.glide.load.resource.gif.GifResourceDecoder;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperResourceDecoder;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperStreamResourceDecoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * shared decoders of {@link Glider} with the given downsample strategy, decode format and gif mode,
+ * used to replace the default decoders of glide request.
+ * the ids of the decoders of glide don't tell their downsample strategy and decode format, so the ids of the decoders
+ * other than the default of glide are suffixed with them, to keep their images apart in the memory and disk cache.
+ */
+final class Decoders {
+
+    private static final Map<Downsampler, Decoders[]> CACHE = new ArrayMap<>();
+
+    final ResourceDecoder<ImageVideoWrapper, GifBitmapWrapper> source;
+    final ResourceDecoder<File, GifBitmapWrapper> cache;
+
+    private Decoders(Context context, Downsampler downsampler, DecodeFormat format, boolean staticGif) {
+        BitmapPool pool = Glide.get(context).getBitmapPool();
+        ResourceDecoder<InputStream, Bitmap> streamDecoder = new StreamBitmapDecoder(downsampler, pool, format);
+        ResourceDecoder<ParcelFileDescriptor, Bitmap> fileDescriptorDecoder = new FileDescriptorBitmapDecoder(pool, format);
+        ResourceDecoder<ImageVideoWrapper, GifBitmapWrapper> source = new GifBitmapWrapperResourceDecoder(
+                new ImageVideoBitmapDecoder(streamDecoder, fileDescriptorDecoder),
+                staticGif ? new StaticGifDecoder() : new GifResourceDecoder(context, pool), pool);
+        ResourceDecoder<File, GifBitmapWrapper> cache = new FileToStreamDecoder<>(new GifBitmapWrapperStreamResourceDecoder(source));
+        if (downsampler == Downsampler.AT_LEAST && format == DecodeFormat.DEFAULT && !staticGif) {
+            // the same decoding as glide by default, keep the ids so the images are shared with the default requests.
+            this.source = source;
+            this.cache = cache;
+        } else {
+            String suffix = "Decoders(downsampler=" + downsampler.getId() + ", format=" + format
+                    + ", staticGif=" + staticGif + ")";
+            this.source = new KeyedDecoder<>(source, suffix);
+            this.cache = new KeyedDecoder<>(cache, suffix);
+        }
+    }
+
+    /**
+     * get the shared decoders with the given downsample strategy, decode format and gif mode.
+     *
+     * @param context     the context to get the bitmap pool.
+     * @param downsampler the downsample strategy.
+     * @param format      the decode format.
+     * @param staticGif   true to decode the first frame of gif as a bitmap, see {@link GifMode#STATIC}.
+     * @return the decoders.
+     */
+    static Decoders get(Context context, Downsampler downsampler, DecodeFormat format, boolean staticGif) {
+        int index = format.ordinal() * 2 + (staticGif ? 1 : 0);
+        synchronized (CACHE) {
+            Decoders[] formats = CACHE.get(downsampler);
+            if (formats == null) {
+                formats = new Decoders[DecodeFormat.values().length * 2];
+                CACHE.put(downsampler, formats);
+            }
+            Decoders decoders = formats[index];
+            if (decoders == null) {
+                decoders = new Decoders(context.getApplicationContext(), downsampler, format, staticGif);
+                formats[index] = decoders;
+            }
+            return decoders;
+        }
+    }
+
+    /**
+     * decoder wrapper suffixes the id of the wrapped decoder.
+     */
+    private static class KeyedDecoder<T> implements ResourceDecoder<T, GifBitmapWrapper> {
+
+        private final ResourceDecoder<T, GifBitmapWrapper> decoder;
+        private final String id;
+
+        KeyedDecoder(ResourceDecoder<T, GifBitmapWrapper> decoder, String suffix) {
+            this.decoder = decoder;
+            this.id = decoder.getId() + suffix;
+        }
+
+        @Override
+        public Resource<GifBitmapWrapper> decode(T source, int width, int height) throws IOException {
+            return decoder.decode(source, width, height);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * the gif decoder decodes nothing, so the gif is decoded by the bitmap decoder as the first frame.
+     */
+    private static class StaticGifDecoder implements ResourceDecoder<InputStream, GifDrawable> {
+
+        @Override
+        public Resource<GifDrawable> decode(InputStream source, int width, int height) {
+            return null;
+        }
+
+        @Override
+        public String getId() {
+            return "StaticGifDecoder.com.zozx.glider";
+        }
+    }
+}
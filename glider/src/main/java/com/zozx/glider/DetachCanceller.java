@@ -0,0 +1,102 @@
+package com.zozx.glider;
+
+import android.graphics.drawable.Drawable;
+import android.support.annotation.DrawableRes;
+import android.view.View;
+import android.widget.ImageView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.Request;
+
+/**
+ * cancel the unfinished auto priority request of a view when the view detached from window,
+ * and load it again when the view attached again without being bound to another load,
+ * such as the cached views of recycler view and the pages of view pager.
+ * the load is started again by {@link Glider}, so its priority is decided by the visibility at the attach.
+ * the load is not started again if the view shows another drawable or request since the cancel,
+ * the view rebound to nothing without changing the drawable should be cleared by {@link Glider#clear(View)}.
+ * one instance is attached to a view and kept in its tag, see {@link #bind}.
+ */
+class DetachCanceller implements View.OnAttachStateChangeListener {
+
+    private Request request;
+    private RequestManager manager;
+    private String uriString;
+    private int uriRes;
+    private GliderOption option;
+    private boolean cancelled;
+    // the drawable shown by the view after the cancel, the placeholder usually.
+    private Drawable cancelledDrawable;
+
+    /**
+     * cancel the request when the view detached, and load it again when attached.
+     *
+     * @param view      the view displays the request.
+     * @param request   the request to be canceled.
+     * @param manager   the request manager to load again.
+     * @param uriString the string uri to load again.
+     * @param uriRes    the drawable resource to load again.
+     * @param option    the option to load again.
+     */
+    static void bind(ImageView view, Request request, RequestManager manager, String uriString,
+                     @DrawableRes int uriRes, GliderOption option) {
+        DetachCanceller canceller = (DetachCanceller) view.getTag(R.id.glider_detach_tag);
+        if (canceller == null) {
+            canceller = new DetachCanceller();
+            view.addOnAttachStateChangeListener(canceller);
+            view.setTag(R.id.glider_detach_tag, canceller);
+        }
+        canceller.request = request;
+        canceller.manager = manager;
+        canceller.uriString = uriString;
+        canceller.uriRes = uriRes;
+        canceller.option = option;
+        canceller.cancelled = false;
+        canceller.cancelledDrawable = null;
+    }
+
+    /**
+     * stop canceling the request of the view, such as when the view is bound to a load without auto priority.
+     *
+     * @param view the view
+     */
+    static void unbind(View view) {
+        DetachCanceller canceller = (DetachCanceller) view.getTag(R.id.glider_detach_tag);
+        if (canceller != null) {
+            canceller.request = null;
+            canceller.manager = null;
+            canceller.uriString = null;
+            canceller.option = null;
+            canceller.cancelled = false;
+            canceller.cancelledDrawable = null;
+        }
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View v) {
+        if (!cancelled) {
+            return;
+        }
+        cancelled = false;
+        Drawable drawable = cancelledDrawable;
+        cancelledDrawable = null;
+        // the view is bound to another load or drawable while detached if the tag of glide or the drawable changed.
+        ImageView view = (ImageView) v;
+        if (view.getTag(R.id.glide_tag) != null || view.getDrawable() != drawable) {
+            return;
+        }
+        Glider.load(manager, view, uriString, uriRes, option);
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View v) {
+        Request request = this.request;
+        // only cancel if the view still displays the request.
+        if (request != null && request == v.getTag(R.id.glide_tag) && !request.isComplete()) {
+            Glide.clear(v);
+            cancelled = true;
+            cancelledDrawable = ((ImageView) v).getDrawable();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.zozx.glider;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.stream.StreamModelLoader;
+
+import java.io.InputStream;
+
+/**
+ * the loader tells the listener of a network request whether the source is fetched or failed to fetch,
+ * so the circuit breaker and the retry policy only count the fetches, not the loads from the disk cache
+ * or the images failed to decode.
+ * the id of the fetcher is the same as the one of the delegate, so the cache keys are not changed.
+ */
+final class FetchTrackingLoader<T> implements StreamModelLoader<T> {
+
+    private final ModelLoader<T, InputStream> delegate;
+    private final RequestListenerWrapper<T> listener;
+
+    FetchTrackingLoader(ModelLoader<T, InputStream> delegate, RequestListenerWrapper<T> listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public DataFetcher<InputStream> getResourceFetcher(T model, int width, int height) {
+        final DataFetcher<InputStream> fetcher = delegate.getResourceFetcher(model, width, height);
+        return new DataFetcher<InputStream>() {
+            @Override
+            public InputStream loadData(Priority priority) throws Exception {
+                InputStream stream;
+                try {
+                    stream = fetcher.loadData(priority);
+                } catch (Exception e) {
+                    listener.onFetchFailed(e);
+                    throw e;
+                }
+                if (stream != null) {
+                    listener.onFetched();
+                }
+                return stream;
+            }
+
+            @Override
+            public void cleanup() {
+                fetcher.cleanup();
+            }
+
+            @Override
+            public String getId() {
+                return fetcher.getId();
+            }
+
+            @Override
+            public void cancel() {
+                fetcher.cancel();
+            }
+        };
+    }
+}
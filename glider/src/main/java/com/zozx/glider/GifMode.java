@@ -0,0 +1,24 @@
+package com.zozx.glider;
+
+/**
+ * how to decode and play the animated gif, set it by {@link GliderOption.Builder#gifMode(GifMode)}
+ * or {@link Glider#setDefaultGifMode(TransformType, GifMode)}.
+ */
+public enum GifMode {
+    /**
+     * decode all frames and play the animation, the default of glide.
+     */
+    ANIMATE,
+    /**
+     * decode all frames and play the animation only while the view is attached and shown.
+     */
+    ANIMATE_WHEN_VISIBLE,
+    /**
+     * decode all frames but show the first frame without playing, the animation can be started by the drawable.
+     */
+    DONT_ANIMATE,
+    /**
+     * decode the first frame only as a bitmap, the cheapest for the small views such as avatars.
+     */
+    STATIC
+}
@@ -2,20 +2,40 @@ package com.zozx.glider;
 
 import android.app.Activity;
 import android.content.Context;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Looper;
 import android.support.annotation.DrawableRes;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import android.support.v4.view.ViewCompat;
+import android.util.SparseArray;
 import android.view.View;
 import android.widget.ImageView;
 
 import com.zozx.glider.GliderOption.Builder;
 import com.bumptech.glide.DrawableRequestBuilder;
+import com.bumptech.glide.GenericRequestBuilder;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
 import com.bumptech.glide.RequestManager;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.model.ImageVideoWrapper;
+import com.bumptech.glide.load.model.stream.StreamModelLoader;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+import com.bumptech.glide.request.Request;
+import com.bumptech.glide.request.target.Target;
 import com.bumptech.glide.request.target.ViewTarget;
 
-import jp.wasabeef.glide.transformations.CropCircleTransformation;
-import jp.wasabeef.glide.transformations.CropSquareTransformation;
-import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Created by zozx on 16/8/8.
@@ -25,9 +45,36 @@ import jp.wasabeef.glide.transformations.RoundedCornersTransformation;
 public class Glider {
 
     private static final int DEFAULT_CROSS_FADE_DURATION = 300;
+    // the kinds of the requests built from an option.
+    private static final int REQUEST_DISPLAY = 0;
+    private static final int REQUEST_BITMAP = 1;
+    private static final int REQUEST_THUMBNAIL = 2;
     //    private static final int DEFAULT_LOADING_DRAWABLE = R.drawable.loading;
 
     private static boolean initialized;
+    private static DecodeFormat defaultDecodeFormat;
+    private static GliderMetricsListener metrics;
+    private static boolean drawTimeShape;
+    private static boolean colorPlaceholder;
+    private static volatile HostCircuitBreaker circuitBreaker;
+    private static volatile GliderUrlTransformer urlTransformer;
+    private static volatile GliderCacheKeyPolicy cacheKeyPolicy;
+    static volatile int sourceThreads;
+    static volatile int diskCacheThreads;
+    private static final Map<TransformType, DiskCacheStrategy> DEFAULT_DISK_CACHE_STRATEGIES = new EnumMap<>(TransformType.class);
+    private static final Map<TransformType, GifMode> DEFAULT_GIF_MODES = new EnumMap<>(TransformType.class);
+
+    // the profiles of the simple load methods, avoid creating option for each call.
+    static final GliderOption PROFILE_URI = builderDefault(new Builder()).create();
+    static final GliderOption PROFILE_RES = builderDefault(new Builder()).diskCache(false).create();
+    static final GliderOption PROFILE_CIRCLE_URI = builderDefault(new Builder()).transformCircle().create();
+    static final GliderOption PROFILE_CIRCLE_RES = builderDefault(new Builder()).diskCache(false).transformCircle().create();
+    static final GliderOption PROFILE_SQUARE_URI = builderDefault(new Builder()).transformSquare().create();
+    // the profiles of the simple load methods with a radius or an error drawable, created once for each of them.
+    private static final SparseArray<GliderOption> PROFILES_ROUND = new SparseArray<>();
+    private static final SparseArray<GliderOption> PROFILES_SQUARE_ROUND = new SparseArray<>();
+    private static final SparseArray<GliderOption> PROFILES_CIRCLE_ERROR = new SparseArray<>();
+    static final float DEFAULT_RADIUS_DP = 5;
 
     static {
         initialize();
@@ -44,12 +91,136 @@ public class Glider {
         ViewTarget.setTagId(R.id.glide_tag);
     }
 
+    /**
+     * set the count of the threads of glide to fetch and decode the images, should be called before glide initialized,
+     * such as in {@link android.app.Application#onCreate()}.
+     *
+     * @param sourceThreads    the count of threads to fetch and decode the source, 0 to use the count of cores.
+     * @param diskCacheThreads the count of threads to decode from disk cache, 0 to use the single thread of glide.
+     */
+    public static void setDecodeThreads(int sourceThreads, int diskCacheThreads) {
+        Glider.sourceThreads = sourceThreads;
+        Glider.diskCacheThreads = diskCacheThreads;
+    }
+
+    /**
+     * set the default decode format of the options without {@link GliderOption.Builder#decodeFormat(DecodeFormat)}.
+     *
+     * @param format the decode format, null to decode with {@link DecodeFormat#DEFAULT} of glide as is.
+     */
+    public static void setDefaultDecodeFormat(DecodeFormat format) {
+        defaultDecodeFormat = format;
+    }
+
+    /**
+     * set the listener of the metrics of all requests, such as a {@link GliderMetrics}.
+     *
+     * @param metrics the metrics listener, null to stop.
+     */
+    public static void setMetrics(GliderMetricsListener metrics) {
+        Glider.metrics = metrics;
+    }
+
+    /**
+     * set whether to draw the shape of transform type at draw time by default,
+     * for the options without {@link GliderOption.Builder#drawTimeShape(boolean)}.
+     *
+     * @param drawTimeShape enable draw time shape, false by default.
+     */
+    public static void setDrawTimeShape(boolean drawTimeShape) {
+        Glider.drawTimeShape = drawTimeShape;
+    }
+
+    /**
+     * enable the circuit breaker of the image hosts. after the given count of successive failures of a host,
+     * the loads of the host fail fast to the error drawable until the open time passes,
+     * then one load is let through to check whether the host is healthy again.
+     * only the failed fetches are counted, not the client errors 4xx or the images failed to decode.
+     *
+     * @param failureThreshold the count of successive failures to open the circuit, 0 to disable the circuit breaker.
+     * @param openMillis       the time in milliseconds to keep the circuit open.
+     */
+    public static void setCircuitBreaker(int failureThreshold, long openMillis) {
+        circuitBreaker = failureThreshold > 0 ? new HostCircuitBreaker(failureThreshold, openMillis) : null;
+    }
+
+    /**
+     * set the transformer to rewrite the network urls for the target size, such as for a resizing cdn.
+     * the option with {@link GliderOption.Builder#urlTransformer(GliderUrlTransformer)} uses its own transformer.
+     *
+     * @param transformer the url transformer, null to fetch the urls as they are.
+     */
+    public static void setUrlTransformer(GliderUrlTransformer transformer) {
+        urlTransformer = transformer;
+    }
+
+    /**
+     * set the policy to build the cache keys of the network urls, such as {@link GliderCacheKeys#stripQueryParams}
+     * for the urls with expiring signatures. the images are still fetched with the full urls.
+     * the option with {@link GliderOption.Builder#cacheKey(String)} or
+     * {@link GliderOption.Builder#cacheKeyPolicy(GliderCacheKeyPolicy)} uses its own key.
+     *
+     * @param policy the cache key policy, null to use the urls as the keys.
+     */
+    public static void setCacheKeyPolicy(GliderCacheKeyPolicy policy) {
+        cacheKeyPolicy = policy;
+    }
+
+    /**
+     * set the default gif mode of the transform type, for the options without {@link GliderOption.Builder#gifMode(GifMode)}.
+     * such as {@link GifMode#STATIC} for {@link TransformType#CIRCLE} to show the animated avatars as still images.
+     *
+     * @param type the transform type.
+     * @param mode the gif mode, {@link GifMode#ANIMATE} by default.
+     */
+    public static void setDefaultGifMode(TransformType type, GifMode mode) {
+        synchronized (DEFAULT_GIF_MODES) {
+            DEFAULT_GIF_MODES.put(type, mode);
+        }
+    }
+
+    /**
+     * set whether to use the average color of the image as the placeholder,
+     * for the options without {@link GliderOption.Builder#colorPlaceholder(boolean)}.
+     *
+     * @param colorPlaceholder enable color placeholder, false by default.
+     */
+    public static void setColorPlaceholder(boolean colorPlaceholder) {
+        Glider.colorPlaceholder = colorPlaceholder;
+    }
+
+    /**
+     * set the default disk cache strategy of the transform type, for the options of string uri without
+     * {@link GliderOption.Builder#diskCacheStrategy(DiskCacheStrategy)} or {@link GliderOption.Builder#diskCache(boolean)}.
+     * such as {@link DiskCacheStrategy#RESULT} for {@link TransformType#CIRCLE} to save only the small avatar.
+     *
+     * @param type     the transform type.
+     * @param strategy the disk cache strategy, {@link DiskCacheStrategy#ALL} by default.
+     */
+    public static void setDefaultDiskCacheStrategy(TransformType type, DiskCacheStrategy strategy) {
+        synchronized (DEFAULT_DISK_CACHE_STRATEGIES) {
+            DEFAULT_DISK_CACHE_STRATEGIES.put(type, strategy);
+        }
+    }
+
+    /**
+     * get the default disk cache strategy of the transform type.
+     */
+    static DiskCacheStrategy defaultDiskCacheStrategy(TransformType type) {
+        DiskCacheStrategy strategy;
+        synchronized (DEFAULT_DISK_CACHE_STRATEGIES) {
+            strategy = DEFAULT_DISK_CACHE_STRATEGIES.get(type);
+        }
+        return strategy != null ? strategy : DiskCacheStrategy.ALL;
+    }
+
     /**
      * clear the cache image on a view.
      *
      * @param view the view you want clear.
      */
     public static void clear(View view) {
+        DetachCanceller.unbind(view);
         Glide.clear(view);
     }
 
@@ -57,68 +228,497 @@ public class Glider {
      * clear the disk cache ,should call in background.
      *
      * @param context the context
+     * @deprecated blocks the calling thread, use {@link GliderCache#clearDiskCache(Context, GliderCache.Callback)}.
      */
+    @Deprecated
     public static void clearDiskCache(final Context context) {
         Glide.get(context).clearDiskCache();
     }
 
     /**
-     * display a image with given glider option
+     * display a image with given glider option.
+     * NOTE: the loading requests with the same uri, transform type, radius, target size and decode options
+     * share one fetch and one transformed bitmap.
      *
      * @param option the option
      */
     public static void load(GliderOption option) {
+        if (option == null) {
+            return;
+        }
+        load(option.view(), option.uriString(), option.uriRes(), option);
+    }
+
+    /**
+     * display a image with given string uri into imageView with a reusable option profile,
+     * the view and uri of the profile are ignored.
+     *
+     * @param view    the view want to be used to display the image.
+     * @param uri     the string uri. can be a url or "file://" + File.
+     * @param profile the option profile, created by {@link GliderOption.Builder#Builder()}.
+     */
+    public static void load(ImageView view, String uri, GliderOption profile) {
+        load(view, uri, 0, profile);
+    }
+
+    /**
+     * display a image with given drawable resource into imageView with a reusable option profile,
+     * the view and uri of the profile are ignored.
+     *
+     * @param view    the view want to be used to display the image.
+     * @param res     the drawable resource.
+     * @param profile the option profile, created by {@link GliderOption.Builder#Builder()}.
+     */
+    public static void load(ImageView view, @DrawableRes int res, GliderOption profile) {
+        load(view, null, res, profile);
+    }
+
+    private static void load(ImageView view, String uriString, @DrawableRes int uriRes, GliderOption option) {
         try {
-            if (option == null || option.view() == null || option.view().getContext() == null
-                    || (option.view().getContext() instanceof Activity && ((Activity) option.view().getContext()).isFinishing())) {
+            if (option == null || view == null || view.getContext() == null
+                    || (view.getContext() instanceof Activity && ((Activity) view.getContext()).isFinishing())) {
                 return;
             }
-            RequestManager manager = Glide.with(option.view().getContext());
-            if (option.isLoadResource()) {
-                DrawableRequestBuilder<Integer> request = manager.load(option.uriRes()).diskCacheStrategy(option.diskCacheStrategy());
-                if (option.listener() != null) {
-                    request.listener(new RequestListenerWrapper<Integer>(option.listener()));
-                }
-                applyRequestOption(request, option);
-            } else {
-                DrawableRequestBuilder<String> request = manager.load(option.uriString()).diskCacheStrategy(option.diskCacheStrategy());
-                if (option.listener() != null) {
-                    request.listener(new RequestListenerWrapper<String>(option.listener()));
-                }
-                applyRequestOption(request, option);
+            load(Glide.with(view.getContext()), view, uriString, uriRes, option);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * display a image into imageView with the given request manager.
+     */
+    static void load(RequestManager manager, ImageView view, String uriString, @DrawableRes int uriRes, GliderOption option) {
+        DrawableRequestBuilder<?> request = buildRequest(manager, view.getContext(), uriString, uriRes, option, REQUEST_DISPLAY);
+        boolean autoPriority = option.priority() == null && option.isAutoPriority();
+        if (autoPriority) {
+            request.priority(autoPriority(view));
+        }
+        GifMode gifMode = gifMode(option);
+        boolean drawTimeShape = isDrawTimeShape(option);
+        Target<GlideDrawable> target;
+        if (!isIntoView(option)) {
+            target = request.into(new GliderImageViewTarget(view, drawTimeShape ? option.transformType() : TransformType.NONE,
+                    option.radius(), gifMode));
+        } else {
+            target = request.into(view);
+        }
+        Request started = target.getRequest();
+        if (manager.isPaused() && started != null && !started.isComplete()) {
+            // the paused manager only queues the request, begin it to show the image from memory cache,
+            // and pause it again if it must wait for the disk or network.
+            started.begin();
+            if (!started.isComplete()) {
+                started.pause();
             }
+        }
+        if (autoPriority && started != null) {
+            DetachCanceller.bind(view, started, manager, uriString, uriRes, option);
+        } else {
+            DetachCanceller.unbind(view);
+        }
+    }
+
+    /**
+     * get the priority of the view by its visibility, the view not attached yet is bound before shown,
+     * such as the rows of list, so it's not demoted.
+     */
+    private static Priority autoPriority(ImageView view) {
+        if (!ViewCompat.isAttachedToWindow(view)) {
+            return Priority.NORMAL;
+        }
+        return view.isShown() ? Priority.HIGH : Priority.LOW;
+    }
+
+    /**
+     * create a session bound to the lifecycle of the activity.
+     *
+     * @param activity the activity
+     * @return the session
+     */
+    public static GliderSession session(Activity activity) {
+        return new GliderSession(Glide.with(activity), activity, null, null);
+    }
+
+    /**
+     * create a session bound to the lifecycle of the activity.
+     *
+     * @param activity the activity
+     * @return the session
+     */
+    public static GliderSession session(FragmentActivity activity) {
+        return new GliderSession(Glide.with(activity), activity, null, null);
+    }
+
+    /**
+     * create a session bound to the lifecycle of the fragment, should be called after the fragment attached.
+     *
+     * @param fragment the fragment
+     * @return the session
+     */
+    public static GliderSession session(Fragment fragment) {
+        return new GliderSession(Glide.with(fragment), fragment.getActivity(), fragment, null);
+    }
+
+    /**
+     * create a session bound to the lifecycle of the fragment, should be called after the fragment attached.
+     *
+     * @param fragment the fragment
+     * @return the session
+     */
+    public static GliderSession session(android.app.Fragment fragment) {
+        return new GliderSession(Glide.with(fragment), fragment.getActivity(), null, fragment);
+    }
+
+    /**
+     * preload a image with given glider option into memory cache, scaled as the view of the option,
+     * or as {@link ImageView.ScaleType#FIT_CENTER} of the view by default if the option has no view.
+     * NOTE: the width and height should be the size of the view which will display the image later,
+     * so that the later {@link #load(GliderOption)} with the same option can hit the memory cache.
+     *
+     * @param context the context
+     * @param option  the option
+     * @param width   the width px of the view which will display the image.
+     * @param height  the height px of the view which will display the image.
+     * @return the target of preload, can be cleared by {@link Glide#clear(Target)} to cancel it,
+     * or null when can't preload.
+     */
+    public static Target<GlideDrawable> preload(Context context, GliderOption option, int width, int height) {
+        return preload(context, option, width, height, null);
+    }
+
+    /**
+     * preload a image with given glider option into memory cache, scaled as the view which will display it.
+     * the image without transformations is scaled by the scale type the same as {@link #load(GliderOption)} does,
+     * so the later load with the same option can hit the memory cache.
+     *
+     * @param context   the context
+     * @param option    the option
+     * @param width     the width px of the view which will display the image.
+     * @param height    the height px of the view which will display the image.
+     * @param scaleType the scale type of the view which will display the image, null to use the view of the option.
+     * @return the target of preload, can be cleared by {@link Glide#clear(Target)} to cancel it,
+     * or null when can't preload.
+     */
+    public static Target<GlideDrawable> preload(Context context, GliderOption option, int width, int height,
+                                                ImageView.ScaleType scaleType) {
+        try {
+            if (context == null || option == null) {
+                return null;
+            }
+            return buildPreloadRequest(Glide.with(context), context, option, scaleType).preload(width, height);
         } catch (Exception e) {
             e.printStackTrace();
+            return null;
         }
     }
 
-    private static void applyRequestOption(DrawableRequestBuilder request, GliderOption option) {
-        if (option.loading() != 0) {
-            request.placeholder(option.loading());
+    /**
+     * load the transformed bitmap of the option without a view, such as for the notifications, widgets and palette.
+     * it goes through the same caches, decoders and transformations as {@link #load(GliderOption)},
+     * the view, placeholders and thumbnail of the option are not used.
+     * can be called on any thread, the load runs on the decode threads set by {@link #setDecodeThreads(int, int)}.
+     *
+     * @param context the context
+     * @param option  the option
+     * @param width   the width px of the bitmap, or {@link Target#SIZE_ORIGINAL}.
+     * @param height  the height px of the bitmap, or {@link Target#SIZE_ORIGINAL}.
+     * @return the future of the bitmap, {@link GliderFuture#clear()} it when the bitmap is not used.
+     */
+    public static GliderFuture get(Context context, GliderOption option, int width, int height) {
+        return get(context, option, width, height, null);
+    }
+
+    /**
+     * load the transformed bitmap of the option without a view, see {@link #get(Context, GliderOption, int, int)}.
+     *
+     * @param context  the context
+     * @param option   the option
+     * @param width    the width px of the bitmap, or {@link Target#SIZE_ORIGINAL}.
+     * @param height   the height px of the bitmap, or {@link Target#SIZE_ORIGINAL}.
+     * @param callback the callback invoked on main thread, nullable.
+     * @return the future of the bitmap, {@link GliderFuture#clear()} it when the bitmap is not used.
+     * the future fails with {@link IllegalArgumentException} if the context or option is null,
+     * and with the exception of building the request if it can't be built.
+     */
+    public static GliderFuture get(Context context, final GliderOption option, int width, int height,
+                                   GliderFuture.Callback callback) {
+        final GliderFuture future = new GliderFuture(width, height, callback);
+        if (context == null || option == null) {
+            future.fail(new IllegalArgumentException("context and option must not be null"));
+            return future;
         }
-        if (option.error() != 0) {
-            request.error(option.error());
+        final Context appContext = context.getApplicationContext();
+        Runnable start = new Runnable() {
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    buildBitmapRequest(Glide.with(appContext), appContext, option).into(future.target());
+                } catch (Exception e) {
+                    future.fail(e);
+                }
+            }
+        };
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            start.run();
+        } else {
+            GliderExecutors.main().post(start);
         }
-        if (option.crossFade() > 0) {
-            request.crossFade(option.crossFade());
+        return future;
+    }
+
+    /**
+     * load the transformed bitmaps of the options in parallel, see {@link #get(Context, GliderOption, int, int)}.
+     *
+     * @param context the context
+     * @param options the options
+     * @param width   the width px of the bitmaps, or {@link Target#SIZE_ORIGINAL}.
+     * @param height  the height px of the bitmaps, or {@link Target#SIZE_ORIGINAL}.
+     * @return the futures of the bitmaps, in the order of the options.
+     */
+    public static List<GliderFuture> getAll(Context context, List<GliderOption> options, int width, int height) {
+        if (options == null) {
+            return new ArrayList<>();
         }
-        ImageView view = option.view();
-        Context context = view.getContext();
-        switch (option.transformType()) {
-            case CIRCLE:
-                request.bitmapTransform(new CropCircleTransformation(context));
-                break;
-            case ROUND:
-                request.bitmapTransform(new CenterCrop(context), new RoundedCornersTransformation(context, option.radius(), 0));
+        List<GliderFuture> futures = new ArrayList<>(options.size());
+        for (int i = 0, size = options.size(); i < size; i++) {
+            futures.add(get(context, options.get(i), width, height, null));
+        }
+        return futures;
+    }
+
+    /**
+     * build a glide request to preload the image of the given glider option, without target.
+     * the image without transformations is scaled by the scale type as {@link GenericRequestBuilder#into(ImageView)}
+     * does, so the request has the same key as {@link #load(GliderOption)}.
+     *
+     * @param scaleType the scale type of the view which will display the image,
+     *                  null to use the view of the option, or {@link ImageView.ScaleType#FIT_CENTER} without view.
+     */
+    static DrawableRequestBuilder<?> buildPreloadRequest(RequestManager manager, Context context, GliderOption option,
+                                                         ImageView.ScaleType scaleType) {
+        DrawableRequestBuilder<?> request = buildRequest(manager, context, option.uriString(), option.uriRes(), option,
+                REQUEST_DISPLAY);
+        if (!isIntoView(option) || option.transformations(context) != null) {
+            return request;
+        }
+        if (scaleType == null) {
+            scaleType = option.view() != null ? option.view().getScaleType() : ImageView.ScaleType.FIT_CENTER;
+        }
+        switch (scaleType) {
+            case CENTER_CROP:
+                request.centerCrop();
                 break;
-            case SQUARE_ROUND:
-                request.bitmapTransform(new CropSquareTransformation(context), new RoundedCornersTransformation(context, option.radius(), 0));
+            case FIT_CENTER:
+            case FIT_START:
+            case FIT_END:
+                request.fitCenter();
                 break;
-            case SQUARE:
-                request.bitmapTransform(new CropSquareTransformation(context));
+            default:
                 break;
         }
-        request.into(view);
+        return request;
+    }
+
+    /**
+     * build a glide request of the transformed image for {@link #get}, without the drawables and thumbnail for display.
+     */
+    static DrawableRequestBuilder<?> buildBitmapRequest(RequestManager manager, Context context, GliderOption option) {
+        return buildRequest(manager, context, option.uriString(), option.uriRes(), option, REQUEST_BITMAP);
+    }
+
+    /**
+     * build a glide request of the model, the thumbnail request is built from the same model selection
+     * without the listener, metrics and placeholders, so it has no side effect on the full request.
+     */
+    private static DrawableRequestBuilder<?> buildRequest(RequestManager manager, Context context, String uriString,
+                                                          @DrawableRes int uriRes, GliderOption option, int kind) {
+        boolean listen = kind != REQUEST_THUMBNAIL;
+        HostCircuitBreaker breaker = circuitBreaker;
+        if (uriRes == 0 && breaker != null && breaker.isOpen(uriString)) {
+            // the null model fails at once to the error drawable, without a fetch.
+            uriString = null;
+        }
+        GliderUrl url = uriRes == 0 ? glideUrl(option, uriString) : null;
+        boolean loadFile = uriRes == 0 && option.file() != null && option.uriString().equals(uriString);
+        String colorKey = null;
+        if (kind == REQUEST_DISPLAY && uriRes == 0 && isColorPlaceholder(option)) {
+            colorKey = loadFile ? option.file().getPath() : url != null ? url.key : uriString;
+        }
+        ColorCache colors = colorKey != null ? ColorCache.get(context) : null;
+        DrawableRequestBuilder<?> request;
+        RequestListenerWrapper<?> listener;
+        if (uriRes != 0) {
+            DrawableRequestBuilder<Integer> resRequest = manager.load(uriRes).diskCacheStrategy(option.diskCacheStrategy(uriRes));
+            RequestListenerWrapper<Integer> resListener = listen ? Glider.<Integer>newListener(option, colors, colorKey) : null;
+            if (resListener != null) {
+                resRequest.listener(resListener);
+            }
+            request = resRequest;
+            listener = resListener;
+        } else if (loadFile) {
+            DrawableRequestBuilder<LocalFile> fileRequest = manager.using(LocalFileLoader.get()).load(option.localFile())
+                    .diskCacheStrategy(option.diskCacheStrategy());
+            RequestListenerWrapper<LocalFile> fileListener = listen ? Glider.<LocalFile>newListener(option, colors, colorKey) : null;
+            if (fileListener != null) {
+                fileRequest.listener(fileListener);
+            }
+            request = fileRequest;
+            listener = fileListener;
+        } else if (url != null) {
+            RequestListenerWrapper<GliderUrl> urlListener = listen ? Glider.<GliderUrl>newListener(option, colors, colorKey) : null;
+            StreamModelLoader<GliderUrl> urlLoader = GliderUrlLoader.get(context);
+            if (urlListener != null && urlListener.tracksFetch()) {
+                urlLoader = new FetchTrackingLoader<>(urlLoader, urlListener);
+            }
+            DrawableRequestBuilder<GliderUrl> urlRequest = manager.using(urlLoader).load(url)
+                    .diskCacheStrategy(option.diskCacheStrategy());
+            if (urlListener != null) {
+                urlRequest.listener(urlListener);
+            }
+            request = urlRequest;
+            listener = urlListener;
+        } else {
+            RequestListenerWrapper<String> uriListener = listen ? Glider.<String>newListener(option, colors, colorKey) : null;
+            DrawableRequestBuilder<String> uriRequest;
+            if (uriListener != null && uriListener.tracksFetch() && HostCircuitBreaker.host(uriString) != null) {
+                uriRequest = manager.using(new FetchTrackingLoader<String>(Glide.buildStreamModelLoader(String.class, context),
+                        uriListener)).load(uriString);
+            } else {
+                uriRequest = manager.load(uriString);
+            }
+            uriRequest.diskCacheStrategy(option.diskCacheStrategy());
+            if (uriListener != null) {
+                uriRequest.listener(uriListener);
+            }
+            request = uriRequest;
+            listener = uriListener;
+        }
+        applyRequestOption(manager, request, context, uriString, uriRes, option, listener, kind);
+        if (colors != null) {
+            int color = colors.color(colorKey);
+            if (color != 0) {
+                request.placeholder(new ColorDrawable(color));
+            }
+        }
+        return request;
+    }
+
+    /**
+     * get the model of the network uri with the cache key policy or the url transformer.
+     *
+     * @return the model, or null if the uri is loaded as it is.
+     */
+    static GliderUrl glideUrl(GliderOption option, String uriString) {
+        if (uriString == null || !uriString.regionMatches(true, 0, "http", 0, 4)) {
+            return null;
+        }
+        GliderUrlTransformer transformer = option.urlTransformer() != null ? option.urlTransformer() : urlTransformer;
+        String key;
+        if (option.cacheKey() != null && uriString.equals(option.uriString())) {
+            key = option.cacheKey();
+        } else {
+            GliderCacheKeyPolicy policy = option.cacheKeyPolicy() != null ? option.cacheKeyPolicy() : cacheKeyPolicy;
+            key = policy != null ? policy.cacheKey(uriString) : uriString;
+        }
+        if (transformer == null && key.equals(uriString)) {
+            return null;
+        }
+        return new GliderUrl(uriString, key, transformer, option.transformType());
+    }
+
+    /**
+     * create a request listener for the option, or null if nothing to listen.
+     */
+    private static <T> RequestListenerWrapper<T> newListener(GliderOption option, ColorCache colors, String colorKey) {
+        HostCircuitBreaker breaker = circuitBreaker;
+        if (option.listener() == null && option.metricsListener() == null && metrics == null
+                && option.retryPolicy() == null && breaker == null && colors == null) {
+            return null;
+        }
+        return new RequestListenerWrapper<>(option.listener(), option.metricsListener(), metrics, option.transformType(),
+                option.retryPolicy(), breaker, colors, colorKey);
+    }
+
+    private static void applyRequestOption(RequestManager manager, DrawableRequestBuilder<?> request, Context context,
+                                           String uriString, @DrawableRes int uriRes, GliderOption option,
+                                           RequestListenerWrapper<?> listener, int kind) {
+        if (kind == REQUEST_DISPLAY && option.loading() != 0) {
+            request.placeholder(option.loading());
+        }
+        if (kind == REQUEST_DISPLAY && option.error() != 0) {
+            request.error(option.error());
+        }
+        if (kind == REQUEST_DISPLAY && option.crossFade() > 0) {
+            request.crossFade(option.crossFade());
+        }
+        applySizeOption(request, option);
+        applyTransformOption(request, context, option, listener, kind != REQUEST_BITMAP);
+        if (kind != REQUEST_DISPLAY) {
+            return;
+        }
+        if (option.thumbnailUri() != null) {
+            request.thumbnail(buildRequest(manager, context, option.thumbnailUri(), 0, option, REQUEST_THUMBNAIL));
+        } else if (option.thumbnailMultiplier() > 0) {
+            // the same source at the smaller size, as thumbnail(float) of glide but without the listener of the request.
+            DrawableRequestBuilder<?> thumbnail = buildRequest(manager, context, uriString, uriRes, option, REQUEST_THUMBNAIL);
+            thumbnail.sizeMultiplier(option.sizeMultiplier() * option.thumbnailMultiplier());
+            request.thumbnail(thumbnail);
+        }
+    }
+
+    /**
+     * apply the size, decoders and transformations of the option as {@link #load(GliderOption)} does,
+     * so the caches filled by the request are hit by the later loads, used by {@link GliderWarmUp}.
+     */
+    static void applyCacheOption(DrawableRequestBuilder<?> request, Context context, GliderOption option) {
+        applySizeOption(request, option);
+        applyTransformOption(request, context, option, null, true);
+    }
+
+    private static void applySizeOption(DrawableRequestBuilder<?> request, GliderOption option) {
+        if (option.priority() != null) {
+            request.priority(option.priority());
+        }
+        if (option.overrideWidth() != 0 && option.overrideHeight() != 0) {
+            request.override(option.overrideWidth(), option.overrideHeight());
+        }
+        if (option.sizeMultiplier() != 1f) {
+            request.sizeMultiplier(option.sizeMultiplier());
+        }
+    }
+
+    /**
+     * apply the decoders and transformations of the option,
+     * the thumbnail request should be applied with the same as the full request to avoid flicker.
+     * the shape is always transformed into the bitmap if it's not displayed.
+     */
+    private static void applyTransformOption(DrawableRequestBuilder<?> request, Context context, GliderOption option,
+                                             RequestListenerWrapper<?> listener, boolean display) {
+        DecodeFormat format = decodeFormat(option);
+        boolean tracksMetrics = listener != null && listener.tracksMetrics();
+        boolean staticGif = gifMode(option) == GifMode.STATIC;
+        if (option.downsampler() != null || format != DecodeFormat.DEFAULT || tracksMetrics || staticGif) {
+            Downsampler downsampler = option.downsampler() != null ? option.downsampler() : Downsampler.AT_LEAST;
+            Decoders decoders = Decoders.get(context, downsampler, format, staticGif);
+            if (tracksMetrics) {
+                request.decoder(new MetricsDecoder<ImageVideoWrapper>(decoders.source, listener, false))
+                        .cacheDecoder(new MetricsDecoder<File>(decoders.cache, listener, true));
+            } else {
+                request.decoder(decoders.source).cacheDecoder(decoders.cache);
+            }
+        }
+        Transformation<GifBitmapWrapper>[] transformations = display && isDrawTimeShape(option) ? null : option.transformations(context);
+        if (transformations != null) {
+            request.transform(transformations);
+        }
+        ResourceEncoder<GifBitmapWrapper> encoder = option.encoder(context);
+        if (encoder != null) {
+            request.encoder(encoder);
+        }
     }
 
     /**
@@ -128,7 +728,7 @@ public class Glider {
      * @param uri  the string uri. can be a url or "file://" + File.
      */
     public static void load(ImageView view, String uri) {
-        load(builder(view, uri).create());
+        load(view, uri, PROFILE_URI);
     }
 
     /**
@@ -149,7 +749,7 @@ public class Glider {
      * @param res  the drawable resource.
      */
     public static void load(ImageView view, @DrawableRes int res) {
-        load(builder(view, res).create());
+        load(view, res, PROFILE_RES);
     }
 
     /**
@@ -160,9 +760,7 @@ public class Glider {
      * @param uri  the string uri. can be a url or "file://" + File.
      */
     public static void loadCircle(ImageView view, String uri) {
-        load(builder(view, uri)
-                .transformCircle()
-                .create());
+        load(view, uri, PROFILE_CIRCLE_URI);
     }
 
     /**
@@ -172,9 +770,7 @@ public class Glider {
      * @param res  the drawable resource.
      */
     public static void loadCircle(ImageView view, @DrawableRes int res) {
-        load(builder(view, res)
-                .transformCircle()
-                .create());
+        load(view, res, PROFILE_CIRCLE_RES);
     }
 
     /**
@@ -186,10 +782,7 @@ public class Glider {
      * @param error the drawable when error happened
      */
     public static void loadCircle(ImageView view, String uri, @DrawableRes int error) {
-        load(builder(view, uri)
-                .transformCircle()
-                .error(error)
-                .create());
+        load(view, uri, circleProfile(error));
     }
 
     /**
@@ -200,7 +793,7 @@ public class Glider {
      * @param uri  the string uri. can be a url or "file://" + File.
      */
     public static void loadSquareRound(ImageView view, String uri) {
-        loadSquareRound(view, uri, 5);
+        loadSquareRound(view, uri, DEFAULT_RADIUS_DP);
     }
 
     /**
@@ -211,7 +804,7 @@ public class Glider {
      * @param res  the drawable resource.
      */
     public static void loadSquareRound(ImageView view, @DrawableRes int res) {
-        loadSquareRound(view, res, 5);
+        loadSquareRound(view, res, DEFAULT_RADIUS_DP);
     }
 
     /**
@@ -224,9 +817,7 @@ public class Glider {
      */
     public static void loadSquareRound(ImageView view, @DrawableRes int res, float radiusDp) {
         if (view == null) return;
-        load(builder(view, res)
-                .transformSquareRound(dpToPx(view.getContext(), radiusDp))
-                .create());
+        load(view, res, roundProfile(view.getContext(), TransformType.SQUARE_ROUND, radiusDp, true));
     }
 
     /**
@@ -239,9 +830,7 @@ public class Glider {
      */
     public static void loadSquareRound(ImageView view, String uri, float radiusDp) {
         if (view == null) return;
-        load(builder(view, uri)
-                .transformSquareRound(dpToPx(view.getContext(), radiusDp))
-                .create());
+        load(view, uri, roundProfile(view.getContext(), TransformType.SQUARE_ROUND, radiusDp, false));
     }
 
     /**
@@ -252,7 +841,7 @@ public class Glider {
      * @param res  the drawable resource
      */
     public static void loadRound(ImageView view, @DrawableRes int res) {
-        loadRound(view, res, 5);
+        loadRound(view, res, DEFAULT_RADIUS_DP);
     }
 
     /**
@@ -263,7 +852,7 @@ public class Glider {
      * @param uri  the string uri. can be a url or "file://" + File.
      */
     public static void loadRound(ImageView view, String uri) {
-        loadRound(view, uri, 5);
+        loadRound(view, uri, DEFAULT_RADIUS_DP);
     }
 
     /**
@@ -276,9 +865,7 @@ public class Glider {
      */
     public static void loadRound(ImageView view, String uri, float radiusDp) {
         if (view == null) return;
-        load(builder(view, uri)
-                .transformRound(dpToPx(view.getContext(), radiusDp))
-                .create());
+        load(view, uri, roundProfile(view.getContext(), TransformType.ROUND, radiusDp, false));
     }
 
     /**
@@ -291,9 +878,7 @@ public class Glider {
      */
     public static void loadRound(ImageView view, @DrawableRes int res, float radiusDp) {
         if (view == null) return;
-        load(builder(view, res)
-                .transformRound(dpToPx(view.getContext(), radiusDp))
-                .create());
+        load(view, res, roundProfile(view.getContext(), TransformType.ROUND, radiusDp, true));
     }
 
     /**
@@ -303,33 +888,119 @@ public class Glider {
      * @param uri  the string uri. can be a url or "file://" + File.
      */
     public static void loadSquare(ImageView view, String uri) {
-        load(builder(view, uri)
-                .transformSquare()
-                .create());
+        load(view, uri, PROFILE_SQUARE_URI);
+    }
+
+    /**
+     * whether to draw the shape of the option at draw time.
+     */
+    private static boolean isDrawTimeShape(GliderOption option) {
+        return option.transformType() != TransformType.NONE
+                && (option.drawTimeShape() != null ? option.drawTimeShape() : drawTimeShape);
+    }
+
+    /**
+     * whether the option is displayed by the target of glide for image view,
+     * which transforms the image without transformations by the scale type of the view.
+     */
+    private static boolean isIntoView(GliderOption option) {
+        GifMode gifMode = gifMode(option);
+        return !isDrawTimeShape(option) && gifMode != GifMode.ANIMATE_WHEN_VISIBLE && gifMode != GifMode.DONT_ANIMATE;
+    }
+
+    /**
+     * whether to use the cached color of the image as the placeholder.
+     */
+    private static boolean isColorPlaceholder(GliderOption option) {
+        return option.colorPlaceholder() != null ? option.colorPlaceholder() : colorPlaceholder;
+    }
+
+    /**
+     * get the gif mode of the option, or the default of the transform type.
+     */
+    private static GifMode gifMode(GliderOption option) {
+        if (option.gifMode() != null) {
+            return option.gifMode();
+        }
+        GifMode mode;
+        synchronized (DEFAULT_GIF_MODES) {
+            mode = DEFAULT_GIF_MODES.get(option.transformType());
+        }
+        return mode != null ? mode : GifMode.ANIMATE;
+    }
+
+    /**
+     * get the decode format of the option, keep the alpha channel for the transparent transform types
+     * only if {@link DecodeFormat#PREFER_RGB_565} is set, the format of glide is not changed if nothing is set.
+     */
+    static DecodeFormat decodeFormat(GliderOption option) {
+        DecodeFormat format = option.decodeFormat() != null ? option.decodeFormat() : defaultDecodeFormat;
+        if (format == null) {
+            return DecodeFormat.DEFAULT;
+        }
+        if (format == DecodeFormat.PREFER_RGB_565 && option.transformType().isTransparent()) {
+            return DecodeFormat.PREFER_ARGB_8888;
+        }
+        return format;
     }
 
     // ——————————————————————————————————————  builders  ———————————————————————————————————————————
 
     /**
-     * create a new builder with string uri
+     * get the shared profile of {@link TransformType#ROUND} or {@link TransformType#SQUARE_ROUND} with the radius,
+     * the profile is created at the first use of the radius px.
      *
-     * @param view the view to create builder
-     * @param uri  the string uri to create builder
-     * @return a new builder created
+     * @param context  the context to convert the radius.
+     * @param type     the round transform type.
+     * @param radiusDp the corner dp value.
+     * @param res      whether the profile is for the drawable resources, which are not cached in disk.
+     * @return the profile
      */
-    private static GliderOption.Builder builder(ImageView view, String uri) {
-        return builderDefault(new Builder(view, uri));
+    static GliderOption roundProfile(Context context, TransformType type, float radiusDp, boolean res) {
+        int radius = dpToPx(context, radiusDp);
+        int key = (radius << 1) | (res ? 1 : 0);
+        SparseArray<GliderOption> profiles = type == TransformType.ROUND ? PROFILES_ROUND : PROFILES_SQUARE_ROUND;
+        synchronized (profiles) {
+            GliderOption profile = profiles.get(key);
+            if (profile == null) {
+                Builder builder = builderDefault(new Builder());
+                if (res) {
+                    builder.diskCache(false);
+                }
+                profile = (type == TransformType.ROUND ? builder.transformRound(radius) : builder.transformSquareRound(radius))
+                        .create();
+                profiles.put(key, profile);
+            }
+            return profile;
+        }
+    }
+
+    /**
+     * get the shared profile of {@link TransformType#CIRCLE} with the error drawable.
+     *
+     * @param error the drawable when error happened
+     * @return the profile
+     */
+    static GliderOption circleProfile(@DrawableRes int error) {
+        synchronized (PROFILES_CIRCLE_ERROR) {
+            GliderOption profile = PROFILES_CIRCLE_ERROR.get(error);
+            if (profile == null) {
+                profile = builderDefault(new Builder()).transformCircle().error(error).create();
+                PROFILES_CIRCLE_ERROR.put(error, profile);
+            }
+            return profile;
+        }
     }
 
     /**
      * create a new builder with string uri
      *
      * @param view the view to create builder
-     * @param res  the drawable resource to create builder
+     * @param uri  the string uri to create builder
      * @return a new builder created
      */
-    private static Builder builder(ImageView view, @DrawableRes int res) {
-        return builderDefault(new Builder(view, res));
+    private static GliderOption.Builder builder(ImageView view, String uri) {
+        return builderDefault(new Builder(view, uri));
     }
 
     /**
@@ -347,7 +1018,7 @@ public class Glider {
     /**
      * trans dp value to px value.
      */
-    private static int dpToPx(Context context, float dp) {
+    static int dpToPx(Context context, float dp) {
         if (context == null) {
             return 0;
         }
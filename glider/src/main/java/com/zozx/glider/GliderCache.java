@@ -0,0 +1,231 @@
+package com.zozx.glider;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * the cache maintenance of {@link Glider}, all the operations are asynchronous and cancellable,
+ * the callbacks are invoked on main thread.
+ */
+@SuppressWarnings("unused")
+public final class GliderCache {
+
+    static volatile int memoryCacheSize;
+    static volatile int bitmapPoolSize;
+    static volatile int diskCacheSize;
+
+    private GliderCache() {
+    }
+
+    /**
+     * set the max byte size of memory cache, should be called before glide initialized,
+     * such as in {@link android.app.Application#onCreate()}.
+     *
+     * @param size the byte size, 0 to use the default size of glide.
+     */
+    public static void setMemoryCacheSize(int size) {
+        memoryCacheSize = size;
+    }
+
+    /**
+     * set the max byte size of bitmap pool, should be called before glide initialized,
+     * such as in {@link android.app.Application#onCreate()}.
+     *
+     * @param size the byte size, 0 to use the default size of glide.
+     */
+    public static void setBitmapPoolSize(int size) {
+        bitmapPoolSize = size;
+    }
+
+    /**
+     * set the max byte size of disk cache, should be called before glide initialized,
+     * such as in {@link android.app.Application#onCreate()}.
+     *
+     * @param size the byte size, 0 to use the default size of glide.
+     */
+    public static void setDiskCacheSize(int size) {
+        diskCacheSize = size;
+    }
+
+    /**
+     * register a {@link ComponentCallbacks2} to trim the memory cache when the system asks.
+     *
+     * @param context the context
+     */
+    public static void registerComponentCallbacks(Context context) {
+        final Context appContext = context.getApplicationContext();
+        appContext.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                trimMemory(appContext, level);
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                Glide.get(appContext).clearMemory();
+            }
+        });
+    }
+
+    /**
+     * trim the memory cache and bitmap pool with the level of {@link ComponentCallbacks2#onTrimMemory(int)},
+     * should be called on main thread.
+     *
+     * @param context the context
+     * @param level   the trim memory level
+     */
+    public static void trimMemory(Context context, int level) {
+        Glide.get(context).trimMemory(level);
+    }
+
+    /**
+     * clear the disk cache in background.
+     *
+     * @param context  the context
+     * @param callback the callback when finished, can be null.
+     * @return the future to cancel the clearing before it started.
+     */
+    public static Future<?> clearDiskCache(Context context, final Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        return GliderExecutors.background().submit(new Runnable() {
+            @Override
+            public void run() {
+                Glide.get(appContext).clearDiskCache();
+                postComplete(callback);
+            }
+        });
+    }
+
+    /**
+     * clear the memory cache and bitmap pool on main thread.
+     *
+     * @param context  the context
+     * @param callback the callback when finished, can be null.
+     * @return the future to cancel the clearing before it started.
+     */
+    public static Future<?> clearMemory(Context context, final Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        FutureTask<Void> task = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+                Glide.get(appContext).clearMemory();
+                if (callback != null) {
+                    callback.onComplete();
+                }
+            }
+        }, null);
+        GliderExecutors.main().post(task);
+        return task;
+    }
+
+    /**
+     * @return the current byte size of memory cache, -1 if the cache is not created by {@link GliderModule}.
+     */
+    public static long memoryCacheSize() {
+        LruResourceCache cache = GliderModule.memoryCache();
+        return cache == null ? -1 : cache.getCurrentSize();
+    }
+
+    /**
+     * @return the max byte size of memory cache, -1 if the cache is not created by {@link GliderModule}.
+     */
+    public static long maxMemoryCacheSize() {
+        LruResourceCache cache = GliderModule.memoryCache();
+        return cache == null ? -1 : cache.getMaxSize();
+    }
+
+    /**
+     * get the current byte size of disk cache in background.
+     *
+     * @param context  the context
+     * @param callback the callback with the size.
+     * @return the future to cancel the calculating.
+     */
+    public static Future<Long> diskCacheSize(Context context, final SizeCallback callback) {
+        final Context appContext = context.getApplicationContext();
+        return GliderExecutors.background().submit(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                final long size = sizeOf(Glide.getPhotoCacheDir(appContext));
+                if (callback != null) {
+                    GliderExecutors.main().post(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onSize(size);
+                        }
+                    });
+                }
+                return size;
+            }
+        });
+    }
+
+    private static long sizeOf(File file) {
+        if (file == null || !file.exists()) {
+            return 0;
+        }
+        if (file.isFile()) {
+            return file.length();
+        }
+        long size = 0;
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                size += sizeOf(child);
+            }
+        }
+        return size;
+    }
+
+    private static void postComplete(final Callback callback) {
+        if (callback == null) {
+            return;
+        }
+        GliderExecutors.main().post(new Runnable() {
+            @Override
+            public void run() {
+                callback.onComplete();
+            }
+        });
+    }
+
+    /**
+     * callback of the cache operation.
+     */
+    public interface Callback {
+
+        /**
+         * invoked on main thread when the operation finished.
+         */
+        void onComplete();
+    }
+
+    /**
+     * callback of the cache size query.
+     */
+    public interface SizeCallback {
+
+        /**
+         * invoked on main thread with the byte size of cache.
+         *
+         * @param size the byte size.
+         */
+        void onSize(long size);
+    }
+}
@@ -0,0 +1,19 @@
+package com.zozx.glider;
+
+/**
+ * build the cache key of a network image from its url, so the urls with volatile parts,
+ * such as the expiring signatures and tracking params, hit the caches of the same image.
+ * the image is still fetched with the full url.
+ * set it by {@link Glider#setCacheKeyPolicy(GliderCacheKeyPolicy)} or
+ * {@link GliderOption.Builder#cacheKeyPolicy(GliderCacheKeyPolicy)}, see {@link GliderCacheKeys} for the common policies.
+ */
+public interface GliderCacheKeyPolicy {
+
+    /**
+     * invoked on main thread when a request starts, should be fast.
+     *
+     * @param uri the url of the option.
+     * @return the cache key of the image.
+     */
+    String cacheKey(String uri);
+}
@@ -0,0 +1,81 @@
+package com.zozx.glider;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * the common {@link GliderCacheKeyPolicy}s.
+ */
+@SuppressWarnings("unused")
+public final class GliderCacheKeys {
+
+    private GliderCacheKeys() {
+    }
+
+    /**
+     * @return the policy using the url without the query and fragment as the cache key.
+     */
+    public static GliderCacheKeyPolicy stripQuery() {
+        return new GliderCacheKeyPolicy() {
+            @Override
+            public String cacheKey(String uri) {
+                int end = queryStart(uri);
+                return end < 0 ? uri : uri.substring(0, end);
+            }
+        };
+    }
+
+    /**
+     * create a policy using the url without the given query params and the fragment as the cache key.
+     *
+     * @param names the names of the params to strip, such as the signature, expiry and tracking params.
+     * @return the policy
+     */
+    public static GliderCacheKeyPolicy stripQueryParams(String... names) {
+        final Set<String> stripped = new HashSet<>(Arrays.asList(names));
+        return new GliderCacheKeyPolicy() {
+            @Override
+            public String cacheKey(String uri) {
+                int start = queryStart(uri);
+                if (start < 0) {
+                    return uri;
+                }
+                int fragment = uri.indexOf('#', start);
+                int end = fragment < 0 ? uri.length() : fragment;
+                StringBuilder key = new StringBuilder(end).append(uri, 0, start);
+                boolean first = true;
+                int paramStart = start + 1;
+                while (paramStart < end) {
+                    int paramEnd = uri.indexOf('&', paramStart);
+                    if (paramEnd < 0 || paramEnd > end) {
+                        paramEnd = end;
+                    }
+                    int nameEnd = uri.indexOf('=', paramStart);
+                    if (nameEnd < 0 || nameEnd > paramEnd) {
+                        nameEnd = paramEnd;
+                    }
+                    if (paramEnd > paramStart && !stripped.contains(uri.substring(paramStart, nameEnd))) {
+                        key.append(first ? '?' : '&').append(uri, paramStart, paramEnd);
+                        first = false;
+                    }
+                    paramStart = paramEnd + 1;
+                }
+                return key.toString();
+            }
+        };
+    }
+
+    /**
+     * @return the index of the '?' or '#' starts the query or the fragment, -1 if none.
+     */
+    private static int queryStart(String uri) {
+        for (int i = 0, length = uri.length(); i < length; i++) {
+            char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
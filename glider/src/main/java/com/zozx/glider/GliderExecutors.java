@@ -0,0 +1,70 @@
+package com.zozx.glider;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * the executors of the background work of {@link Glider}, such as the cache maintenance.
+ */
+final class GliderExecutors {
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    private static volatile ExecutorService background;
+
+    private GliderExecutors() {
+    }
+
+    /**
+     * @return the handler of main thread.
+     */
+    static Handler main() {
+        return MAIN;
+    }
+
+    /**
+     * @return the single thread executor for the background work, the thread is released when idle.
+     */
+    static ExecutorService background() {
+        if (background == null) {
+            synchronized (GliderExecutors.class) {
+                if (background == null) {
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(), newThreadFactory("glider-background"));
+                    executor.allowCoreThreadTimeOut(true);
+                    background = executor;
+                }
+            }
+        }
+        return background;
+    }
+
+    /**
+     * create a thread factory of background priority threads with the given name prefix.
+     */
+    static ThreadFactory newThreadFactory(final String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
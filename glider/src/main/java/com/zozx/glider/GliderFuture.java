@@ -0,0 +1,215 @@
+package com.zozx.glider;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.resource.bitmap.GlideBitmapDrawable;
+import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+import com.bumptech.glide.request.animation.GlideAnimation;
+import com.bumptech.glide.request.target.SimpleTarget;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * the future of a transformed bitmap loaded by {@link Glider#get}, without a view.
+ * the bitmap is kept by glide until {@link #clear()} is called, so it is not recycled into the bitmap pool while in use,
+ * copy it if it's needed after clear.
+ */
+@SuppressWarnings("unused")
+public final class GliderFuture implements Future<Bitmap> {
+
+    private final BitmapTarget target;
+    private final Callback callback;
+    private Bitmap bitmap;
+    private Exception exception;
+    private boolean done;
+    private boolean cancelled;
+
+    GliderFuture(int width, int height, Callback callback) {
+        this.target = new BitmapTarget(width, height);
+        this.callback = callback;
+    }
+
+    SimpleTarget<GlideDrawable> target() {
+        return target;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            done = true;
+            notifyAll();
+        }
+        clear();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    /**
+     * wait for the bitmap, should not be called on main thread.
+     *
+     * @return the transformed bitmap.
+     * @throws ExecutionException if the load failed.
+     */
+    @Override
+    public Bitmap get() throws InterruptedException, ExecutionException {
+        try {
+            return get(0, null);
+        } catch (TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Override
+    public Bitmap get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        synchronized (this) {
+            if (!done && Looper.myLooper() == Looper.getMainLooper()) {
+                throw new IllegalStateException("You must call this method on a background thread");
+            }
+            if (unit == null) {
+                while (!done) {
+                    wait();
+                }
+            } else {
+                long deadline = System.nanoTime() + unit.toNanos(timeout);
+                long remaining = unit.toNanos(timeout);
+                while (!done && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+                if (!done) {
+                    throw new TimeoutException();
+                }
+            }
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            if (bitmap == null) {
+                throw new ExecutionException(exception);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * release the bitmap to glide, or cancel the load if it's not finished.
+     */
+    public void clear() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Glide.clear(target);
+        } else {
+            GliderExecutors.main().post(new Runnable() {
+                @Override
+                public void run() {
+                    Glide.clear(target);
+                }
+            });
+        }
+    }
+
+    /**
+     * fail the future without a load, such as the request can't be built, the callback is invoked on main thread.
+     *
+     * @param e the exception
+     */
+    void fail(final Exception e) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            onResult(null, e);
+        } else {
+            GliderExecutors.main().post(new Runnable() {
+                @Override
+                public void run() {
+                    onResult(null, e);
+                }
+            });
+        }
+    }
+
+    private void onResult(Bitmap bitmap, Exception exception) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            this.bitmap = bitmap;
+            this.exception = exception;
+            done = true;
+            notifyAll();
+        }
+        if (callback == null) {
+            return;
+        }
+        if (bitmap != null) {
+            callback.onBitmap(bitmap);
+        } else {
+            callback.onFailed(exception);
+        }
+    }
+
+    private static Bitmap toBitmap(GlideDrawable resource) {
+        if (resource instanceof GlideBitmapDrawable) {
+            return ((GlideBitmapDrawable) resource).getBitmap();
+        }
+        if (resource instanceof GifDrawable) {
+            return ((GifDrawable) resource).getFirstFrame();
+        }
+        return null;
+    }
+
+    /**
+     * the callback of {@link Glider#get}, invoked on main thread.
+     */
+    public interface Callback {
+
+        /**
+         * invoked when the bitmap is ready, it's valid until {@link GliderFuture#clear()}.
+         *
+         * @param bitmap the transformed bitmap.
+         */
+        void onBitmap(Bitmap bitmap);
+
+        /**
+         * invoked when the load failed.
+         *
+         * @param e the exception, nullable.
+         */
+        void onFailed(Exception e);
+    }
+
+    private class BitmapTarget extends SimpleTarget<GlideDrawable> {
+
+        BitmapTarget(int width, int height) {
+            super(width, height);
+        }
+
+        @Override
+        public void onResourceReady(GlideDrawable resource, GlideAnimation<? super GlideDrawable> glideAnimation) {
+            Bitmap bitmap = toBitmap(resource);
+            onResult(bitmap, bitmap == null ? new IllegalStateException("Unsupported resource " + resource) : null);
+        }
+
+        @Override
+        public void onLoadFailed(Exception e, Drawable errorDrawable) {
+            onResult(null, e);
+        }
+    }
+}
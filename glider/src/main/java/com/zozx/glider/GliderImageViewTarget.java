@@ -0,0 +1,100 @@
+package com.zozx.glider;
+
+import android.graphics.drawable.Drawable;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.widget.ImageView;
+
+import com.bumptech.glide.load.resource.bitmap.GlideBitmapDrawable;
+import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+import com.bumptech.glide.request.animation.GlideAnimation;
+import com.bumptech.glide.request.target.ImageViewTarget;
+
+/**
+ * the image view target of {@link Glider}, draws the bitmap with the shape of {@link TransformType} at draw time
+ * instead of transforming the bitmap, see {@link GliderOption.Builder#drawTimeShape(boolean)},
+ * and plays the animated gif by {@link GifMode}.
+ */
+class GliderImageViewTarget extends ImageViewTarget<GlideDrawable> implements View.OnAttachStateChangeListener {
+
+    private final TransformType shape;
+    private final int radius;
+    private final GifMode gifMode;
+    private GlideDrawable resource;
+    private boolean started;
+
+    GliderImageViewTarget(ImageView view, TransformType shape, int radius, GifMode gifMode) {
+        super(view);
+        this.shape = shape;
+        this.radius = radius;
+        this.gifMode = gifMode;
+    }
+
+    @Override
+    public void onResourceReady(GlideDrawable resource, GlideAnimation<? super GlideDrawable> animation) {
+        if (shape != TransformType.NONE && resource instanceof GlideBitmapDrawable) {
+            resource = new GliderShapeDrawable(((GlideBitmapDrawable) resource).getBitmap(), shape, radius);
+        }
+        super.onResourceReady(resource, animation);
+        this.resource = resource;
+        resource.setLoopCount(GlideDrawable.LOOP_FOREVER);
+        started = true;
+        if (gifMode == GifMode.ANIMATE_WHEN_VISIBLE && resource.isAnimated()) {
+            // listen until the load is cleared, which happens when the view is bound to another load.
+            view.removeOnAttachStateChangeListener(this);
+            view.addOnAttachStateChangeListener(this);
+        }
+        updateAnimation();
+    }
+
+    @Override
+    public void onLoadCleared(Drawable placeholder) {
+        view.removeOnAttachStateChangeListener(this);
+        resource = null;
+        super.onLoadCleared(placeholder);
+    }
+
+    @Override
+    protected void setResource(GlideDrawable resource) {
+        view.setImageDrawable(resource);
+    }
+
+    @Override
+    public void onStart() {
+        started = true;
+        updateAnimation();
+    }
+
+    @Override
+    public void onStop() {
+        started = false;
+        updateAnimation();
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View v) {
+        updateAnimation(true);
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View v) {
+        // the view is still attached while dispatching the detach.
+        updateAnimation(false);
+    }
+
+    private void updateAnimation() {
+        updateAnimation(ViewCompat.isAttachedToWindow(view));
+    }
+
+    private void updateAnimation(boolean attached) {
+        if (resource == null || gifMode == GifMode.DONT_ANIMATE) {
+            return;
+        }
+        boolean animate = started && (gifMode != GifMode.ANIMATE_WHEN_VISIBLE || attached && view.isShown());
+        if (animate) {
+            resource.start();
+        } else {
+            resource.stop();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.zozx.glider;
+
+import java.util.Arrays;
+
+/**
+ * a {@link GliderMetricsListener} keeps the metrics of all requests in memory as percentile histograms,
+ * set it by {@link Glider#setMetrics(GliderMetricsListener)}.
+ */
+@SuppressWarnings("unused")
+public class GliderMetrics implements GliderMetricsListener {
+
+    private final Histogram waitTime = new Histogram();
+    private final Histogram decodeTime = new Histogram();
+    private final Histogram totalTime = new Histogram();
+    private final int[] sourceCounts = new int[LoadMetrics.Source.values().length];
+    private long byteSize;
+    private int failureCount;
+
+    @Override
+    public synchronized void onMetrics(LoadMetrics metrics) {
+        if (!metrics.isSuccess()) {
+            failureCount++;
+            return;
+        }
+        sourceCounts[metrics.source().ordinal()]++;
+        byteSize += metrics.byteSize();
+        waitTime.record(metrics.waitTime());
+        decodeTime.record(metrics.decodeTime());
+        totalTime.record(metrics.totalTime());
+    }
+
+    /**
+     * get the percentile of the wait time of succeeded requests.
+     *
+     * @param percentile the percentile between 0 and 100, such as 50 or 99.
+     * @return the wait time in milliseconds, -1 if no records.
+     */
+    public synchronized long waitTime(double percentile) {
+        return waitTime.percentile(percentile);
+    }
+
+    /**
+     * get the percentile of the decode time of succeeded requests.
+     *
+     * @param percentile the percentile between 0 and 100, such as 50 or 99.
+     * @return the decode time in milliseconds, -1 if no records.
+     */
+    public synchronized long decodeTime(double percentile) {
+        return decodeTime.percentile(percentile);
+    }
+
+    /**
+     * get the percentile of the total time of succeeded requests.
+     *
+     * @param percentile the percentile between 0 and 100, such as 50 or 99.
+     * @return the total time in milliseconds, -1 if no records.
+     */
+    public synchronized long totalTime(double percentile) {
+        return totalTime.percentile(percentile);
+    }
+
+    /**
+     * @param source the source of images.
+     * @return the count of succeeded requests loaded from the source.
+     */
+    public synchronized int count(LoadMetrics.Source source) {
+        return sourceCounts[source.ordinal()];
+    }
+
+    /**
+     * @return the count of failed requests.
+     */
+    public synchronized int failureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return the byte size of all decoded bitmaps.
+     */
+    public synchronized long byteSize() {
+        return byteSize;
+    }
+
+    /**
+     * clear all records.
+     */
+    public synchronized void reset() {
+        waitTime.reset();
+        decodeTime.reset();
+        totalTime.reset();
+        Arrays.fill(sourceCounts, 0);
+        byteSize = 0;
+        failureCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GliderMetrics{memory=" + count(LoadMetrics.Source.MEMORY)
+                + ", disk=" + count(LoadMetrics.Source.DISK)
+                + ", network=" + count(LoadMetrics.Source.NETWORK)
+                + ", local=" + count(LoadMetrics.Source.LOCAL)
+                + ", failure=" + failureCount
+                + ", totalTime p50/p99=" + totalTime(50) + "/" + totalTime(99)
+                + ", decodeTime p50/p99=" + decodeTime(50) + "/" + decodeTime(99) + '}';
+    }
+
+    /**
+     * histogram with log buckets, a bucket per millisecond below 64 ms, and 32 buckets for each doubling above,
+     * so the percentiles are within 3% of the values up to 24 days. the values beyond are counted into the last bucket.
+     */
+    static class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+        private static final int MAX_SHIFT = 25;
+        private static final int BUCKETS = LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+
+        private final int[] counts = new int[BUCKETS];
+        private int total;
+
+        void record(long value) {
+            if (value < 0) {
+                return;
+            }
+            counts[index(value)]++;
+            total++;
+        }
+
+        long percentile(double percentile) {
+            if (total == 0) {
+                return -1;
+            }
+            long rank = (long) Math.ceil(percentile / 100 * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return value(i);
+                }
+            }
+            return value(BUCKETS - 1);
+        }
+
+        void reset() {
+            Arrays.fill(counts, 0);
+            total = 0;
+        }
+
+        /**
+         * get the bucket of the value, the value of [32 << shift, 64 << shift) is in the sub bucket of (value >> shift).
+         */
+        static int index(long value) {
+            if (value < LINEAR_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            if (shift > MAX_SHIFT) {
+                return BUCKETS - 1;
+            }
+            return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >> shift) - SUB_BUCKETS;
+        }
+
+        /**
+         * get the middle value of the bucket.
+         */
+        static long value(int index) {
+            if (index < LINEAR_BUCKETS) {
+                return index;
+            }
+            int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+            long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+            return (subBucket << shift) + (1L << (shift - 1));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.zozx.glider;
+
+/**
+ * listener of the metrics of glider requests, can be set to a option by
+ * {@link GliderOption.Builder#metricsListener(GliderMetricsListener)},
+ * or to all requests by {@link Glider#setMetrics(GliderMetricsListener)}.
+ */
+public interface GliderMetricsListener {
+
+    /**
+     * invoked on main thread when a request finished, successfully or not.
+     *
+     * @param metrics the metrics of the request.
+     */
+    void onMetrics(LoadMetrics metrics);
+}
@@ -0,0 +1,52 @@
+package com.zozx.glider;
+
+import android.content.Context;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.engine.executor.FifoPriorityThreadPoolExecutor;
+import com.bumptech.glide.module.GlideModule;
+
+/**
+ * the glide module of {@link Glider}, registered in the manifest of the library.
+ * apply the cache sizes configured by {@link GliderCache} and the threads configured by {@link Glider} when glide initializing.
+ */
+public class GliderModule implements GlideModule {
+
+    private static volatile LruResourceCache memoryCache;
+
+    /**
+     * @return the memory cache created by this module, null if glide is not initialized by this module.
+     */
+    static LruResourceCache memoryCache() {
+        return memoryCache;
+    }
+
+    @Override
+    public void applyOptions(Context context, GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator(context);
+        int memoryCacheSize = GliderCache.memoryCacheSize > 0 ? GliderCache.memoryCacheSize : calculator.getMemoryCacheSize();
+        int bitmapPoolSize = GliderCache.bitmapPoolSize > 0 ? GliderCache.bitmapPoolSize : calculator.getBitmapPoolSize();
+        LruResourceCache cache = new LruResourceCache(memoryCacheSize);
+        memoryCache = cache;
+        builder.setMemoryCache(cache);
+        builder.setBitmapPool(new LruBitmapPool(bitmapPoolSize));
+        if (GliderCache.diskCacheSize > 0) {
+            builder.setDiskCache(new InternalCacheDiskCacheFactory(context, GliderCache.diskCacheSize));
+        }
+        if (Glider.sourceThreads > 0) {
+            builder.setResizeService(new FifoPriorityThreadPoolExecutor(Glider.sourceThreads));
+        }
+        if (Glider.diskCacheThreads > 0) {
+            builder.setDiskCacheService(new FifoPriorityThreadPoolExecutor(Glider.diskCacheThreads));
+        }
+    }
+
+    @Override
+    public void registerComponents(Context context, Glide glide) {
+    }
+}
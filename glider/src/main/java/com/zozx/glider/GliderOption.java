@@ -1,70 +1,299 @@
 package com.zozx.glider;
 
+import android.content.Context;
+import android.graphics.Bitmap;
 import android.support.annotation.DrawableRes;
 import android.util.Log;
 import android.widget.ImageView;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.ResourceEncoder;
+import com.bumptech.glide.load.Transformation;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.bitmap.BitmapEncoder;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.gif.GifResourceEncoder;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperResourceEncoder;
+import com.bumptech.glide.request.target.Target;
 
 import java.io.File;
 
 /**
  * Created by zozx on 16/9/28.
- * option for {@link Glider}
+ * option for {@link Glider}, immutable after created.
+ * a option without view and uri can be reused as a profile by {@link Glider#load(ImageView, String, GliderOption)}.
  */
 public class GliderOption {
 
-    private final Builder builder;
+    private final ImageView view;
+    private final int uriRes;
+    private final String uriString;
+    private final int loading;
+    private final int error;
+    private final GliderListener listener;
+    private final GliderMetricsListener metricsListener;
+    private final Priority priority;
+    private final boolean autoPriority;
+    private final float thumbnailMultiplier;
+    private final String thumbnailUri;
+    private final TransformType transformType;
+    private final int radius;
+    private final int crossFadeDuration;
+    private final DiskCacheStrategy diskCacheStrategy;
+    private final int overrideWidth;
+    private final int overrideHeight;
+    private final float sizeMultiplier;
+    private final Downsampler downsampler;
+    private final DecodeFormat decodeFormat;
+    private final Boolean drawTimeShape;
+    private final Bitmap.CompressFormat resultFormat;
+    private final int resultQuality;
+    private final GliderRetryPolicy retryPolicy;
+    private final File file;
+    private final LocalFile localFile;
+    private final GliderUrlTransformer urlTransformer;
+    private final String cacheKey;
+    private final GliderCacheKeyPolicy cacheKeyPolicy;
+    private final GifMode gifMode;
+    private final Boolean colorPlaceholder;
+    private volatile Transformation<GifBitmapWrapper>[] transformations;
+    private volatile ResourceEncoder<GifBitmapWrapper> encoder;
 
     private GliderOption(Builder builder) {
-        this.builder = builder;
+        this.view = builder.view;
+        this.uriRes = builder.uriRes;
+        this.uriString = builder.uriString;
+        this.loading = builder.loading;
+        this.error = builder.error;
+        this.listener = builder.listener;
+        this.metricsListener = builder.metricsListener;
+        this.priority = builder.priority;
+        this.autoPriority = builder.autoPriority;
+        this.thumbnailMultiplier = builder.thumbnailMultiplier;
+        this.thumbnailUri = builder.thumbnailUri;
+        this.transformType = builder.transformType;
+        this.radius = builder.radius;
+        this.crossFadeDuration = builder.crossFadeDuration;
+        this.diskCacheStrategy = builder.diskCacheStrategy;
+        this.overrideWidth = builder.overrideWidth;
+        this.overrideHeight = builder.overrideHeight;
+        this.sizeMultiplier = builder.sizeMultiplier;
+        this.downsampler = builder.downsampler;
+        this.decodeFormat = builder.decodeFormat;
+        this.drawTimeShape = builder.drawTimeShape;
+        this.resultFormat = builder.resultFormat;
+        this.resultQuality = builder.resultQuality;
+        this.retryPolicy = builder.retryPolicy;
+        this.file = builder.file;
+        this.localFile = builder.file != null ? new LocalFile(builder.file) : null;
+        this.urlTransformer = builder.urlTransformer;
+        this.cacheKey = builder.cacheKey;
+        this.cacheKeyPolicy = builder.cacheKeyPolicy;
+        this.gifMode = builder.gifMode;
+        this.colorPlaceholder = builder.colorPlaceholder;
     }
 
     public ImageView view() {
-        return this.builder.view;
+        return this.view;
     }
 
     public String uriString() {
-        return this.builder.uriString;
+        return this.uriString;
     }
 
     @DrawableRes
     public int uriRes() {
-        return this.builder.uriRes;
+        return this.uriRes;
+    }
+
+    /**
+     * @return the local file to load by the loader of local files, or null for the string uri.
+     */
+    public File file() {
+        return this.file;
+    }
+
+    /**
+     * @return the model of the local file with the state when the option created, or null for the string uri.
+     */
+    LocalFile localFile() {
+        return this.localFile;
+    }
+
+    public GliderUrlTransformer urlTransformer() {
+        return this.urlTransformer;
+    }
+
+    public String cacheKey() {
+        return this.cacheKey;
+    }
+
+    public GliderCacheKeyPolicy cacheKeyPolicy() {
+        return this.cacheKeyPolicy;
+    }
+
+    public GifMode gifMode() {
+        return this.gifMode;
+    }
+
+    public Boolean colorPlaceholder() {
+        return this.colorPlaceholder;
     }
 
     public boolean isLoadResource() {
-        return this.builder.uriRes != 0;
+        return this.uriRes != 0;
     }
 
     public int crossFade() {
-        return this.builder.crossFadeDuration;
+        return this.crossFadeDuration;
     }
 
     @DrawableRes
     public int loading() {
-        return this.builder.loading;
+        return this.loading;
     }
 
     @DrawableRes
     public int error() {
-        return this.builder.error;
+        return this.error;
     }
 
     public GliderListener listener() {
-        return this.builder.listener;
+        return this.listener;
+    }
+
+    public Priority priority() {
+        return this.priority;
+    }
+
+    public boolean isAutoPriority() {
+        return this.autoPriority;
+    }
+
+    public float thumbnailMultiplier() {
+        return this.thumbnailMultiplier;
+    }
+
+    public String thumbnailUri() {
+        return this.thumbnailUri;
+    }
+
+    public GliderMetricsListener metricsListener() {
+        return this.metricsListener;
     }
 
     public TransformType transformType() {
-        return this.builder.transformType;
+        return this.transformType;
     }
 
     public int radius() {
-        return this.builder.radius;
+        return this.radius;
     }
 
+    /**
+     * @return the disk cache strategy set by the builder, {@link DiskCacheStrategy#RESULT} for local file,
+     * or the default of the transform type by {@link Glider#setDefaultDiskCacheStrategy}.
+     */
     public DiskCacheStrategy diskCacheStrategy() {
-        return this.builder.diskCacheStrategy;
+        if (this.diskCacheStrategy != null) {
+            return this.diskCacheStrategy;
+        }
+        // the local file is the source already, only the result is worth caching.
+        return file != null ? DiskCacheStrategy.RESULT : Glider.defaultDiskCacheStrategy(transformType);
+    }
+
+    /**
+     * get the disk cache strategy to load the given model, the option may be a profile bound to another model.
+     *
+     * @param uriRes the drawable resource to load, 0 for the string uri.
+     * @return the disk cache strategy set by the builder, {@link DiskCacheStrategy#NONE} for drawable resource,
+     * or {@link #diskCacheStrategy()}.
+     */
+    DiskCacheStrategy diskCacheStrategy(@DrawableRes int uriRes) {
+        if (this.diskCacheStrategy == null && uriRes != 0) {
+            return DiskCacheStrategy.NONE;
+        }
+        return diskCacheStrategy();
+    }
+
+    public Bitmap.CompressFormat resultFormat() {
+        return this.resultFormat;
+    }
+
+    public int resultQuality() {
+        return this.resultQuality;
+    }
+
+    public int overrideWidth() {
+        return this.overrideWidth;
+    }
+
+    public int overrideHeight() {
+        return this.overrideHeight;
+    }
+
+    public float sizeMultiplier() {
+        return this.sizeMultiplier;
+    }
+
+    public Downsampler downsampler() {
+        return this.downsampler;
+    }
+
+    public DecodeFormat decodeFormat() {
+        return this.decodeFormat;
+    }
+
+    /**
+     * @return whether to draw the shape at draw time, null to use {@link Glider#setDrawTimeShape(boolean)}.
+     */
+    public Boolean drawTimeShape() {
+        return this.drawTimeShape;
+    }
+
+    public GliderRetryPolicy retryPolicy() {
+        return this.retryPolicy;
+    }
+
+    /**
+     * get the shared transformations of this option, resolved at the first call.
+     *
+     * @param context the context to get the bitmap pool.
+     * @return the transformations, or null when the type is {@link TransformType#NONE}.
+     */
+    Transformation<GifBitmapWrapper>[] transformations(Context context) {
+        if (transformType == TransformType.NONE) {
+            return null;
+        }
+        Transformation<GifBitmapWrapper>[] transformations = this.transformations;
+        if (transformations == null) {
+            transformations = Transformations.get(context, transformType, radius);
+            this.transformations = transformations;
+        }
+        return transformations;
+    }
+
+    /**
+     * get the encoder of the transformed result on disk, created at the first call.
+     *
+     * @param context the context to get the bitmap pool.
+     * @return the encoder, or null to use the default encoder of glide.
+     */
+    ResourceEncoder<GifBitmapWrapper> encoder(Context context) {
+        if (resultFormat == null) {
+            return null;
+        }
+        ResourceEncoder<GifBitmapWrapper> encoder = this.encoder;
+        if (encoder == null) {
+            BitmapPool pool = Glide.get(context).getBitmapPool();
+            encoder = new GifBitmapWrapperResourceEncoder(new BitmapEncoder(resultFormat, resultQuality), new GifResourceEncoder(pool));
+            this.encoder = encoder;
+        }
+        return encoder;
     }
 
     @SuppressWarnings("unused")
@@ -75,19 +304,80 @@ public class GliderOption {
         private int loading;
         private int error;
         private GliderListener listener;
+        private GliderMetricsListener metricsListener;
+        private Priority priority;
+        private boolean autoPriority;
+        private float thumbnailMultiplier;
+        private String thumbnailUri;
         private TransformType transformType;
         private int radius;
         private int crossFadeDuration;
         private DiskCacheStrategy diskCacheStrategy;
+        private int overrideWidth;
+        private int overrideHeight;
+        private float sizeMultiplier = 1f;
+        private Downsampler downsampler;
+        private DecodeFormat decodeFormat;
+        private Boolean drawTimeShape;
+        private Bitmap.CompressFormat resultFormat;
+        private int resultQuality;
+        private GliderRetryPolicy retryPolicy;
+        private File file;
+        private GliderUrlTransformer urlTransformer;
+        private String cacheKey;
+        private GliderCacheKeyPolicy cacheKeyPolicy;
+        private GifMode gifMode;
+        private Boolean colorPlaceholder;
+
+        /**
+         * create a builder for glider option profile without imageView and uri,
+         * bind it with view and uri by {@link Glider#load(ImageView, String, GliderOption)}.
+         */
+        public Builder() {
+            this(null, (String) null);
+        }
+
+        /**
+         * create a builder for glider option with string uri but without imageView,
+         * used to preload the image by {@link Glider#preload}.
+         *
+         * @param uri string uri
+         */
+        public Builder(String uri) {
+            this(null, uri);
+        }
+
+        /**
+         * create a builder for glider option with drawable resource but without imageView,
+         * used to preload the image by {@link Glider#preload}.
+         *
+         * @param uriRes drawable resource
+         */
+        public Builder(@DrawableRes int uriRes) {
+            this(null, uriRes);
+        }
 
         /**
          * create a builder for glider option with imageView and file.
+         * NOTE: the last modified time and length of the file are cached by path and checked on the background thread,
+         * the edit of the file is seen by the loads about one second after it.
          *
          * @param view imageView
          * @param file file
          */
         public Builder(ImageView view, File file) {
             this(view, "file://" + file);
+            this.file = file;
+        }
+
+        /**
+         * create a builder for glider option with local file and without imageView,
+         * used to preload the image by {@link Glider#preload}.
+         *
+         * @param file file
+         */
+        public Builder(File file) {
+            this(null, file);
         }
 
         /**
@@ -100,7 +390,6 @@ public class GliderOption {
             this.view = view;
             this.uriString = uri;
             this.transformType = TransformType.NONE;
-            diskCache(true);
         }
 
         /**
@@ -127,6 +416,219 @@ public class GliderOption {
             return this;
         }
 
+        /**
+         * set the disk cache strategy, such as {@link DiskCacheStrategy#RESULT} to save only the transformed image.
+         * default is {@link Glider#setDefaultDiskCacheStrategy} of the transform type for string uri,
+         * and {@link DiskCacheStrategy#NONE} for drawable resource, also when this option is a profile
+         * bound to a drawable resource by {@link Glider#load(ImageView, int, GliderOption)}.
+         *
+         * @param strategy the disk cache strategy.
+         * @return this builder
+         */
+        public Builder diskCacheStrategy(DiskCacheStrategy strategy) {
+            this.diskCacheStrategy = strategy;
+            return this;
+        }
+
+        /**
+         * set the format and quality to save the transformed image on disk,
+         * such as {@link Bitmap.CompressFormat#WEBP} which is compact and keeps the alpha channel.
+         * by default glide saves png for the image with alpha channel, otherwise jpeg.
+         *
+         * @param format  the compress format.
+         * @param quality the compress quality between 0 and 100.
+         * @return this builder
+         */
+        public Builder resultEncoding(Bitmap.CompressFormat format, int quality) {
+            this.resultFormat = format;
+            this.resultQuality = quality;
+            return this;
+        }
+
+        /**
+         * set the retry policy of the failed network load, the placeholder is kept while retrying.
+         * default is no retry.
+         *
+         * @param retryPolicy the retry policy, nullable.
+         * @return this builder
+         */
+        public Builder retry(GliderRetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * set the transformer to rewrite the url for the target size, instead of the one set by
+         * {@link Glider#setUrlTransformer(GliderUrlTransformer)}.
+         *
+         * @param urlTransformer the url transformer, nullable.
+         * @return this builder
+         */
+        public Builder urlTransformer(GliderUrlTransformer urlTransformer) {
+            this.urlTransformer = urlTransformer;
+            return this;
+        }
+
+        /**
+         * set the stable id of the image as the cache key, such as the id of the image in the api,
+         * so the url can change without missing the caches.
+         *
+         * @param stableId the stable id, nullable.
+         * @return this builder
+         */
+        public Builder cacheKey(String stableId) {
+            this.cacheKey = stableId;
+            return this;
+        }
+
+        /**
+         * set the policy to build the cache key from the url, instead of the one set by
+         * {@link Glider#setCacheKeyPolicy(GliderCacheKeyPolicy)}.
+         *
+         * @param policy the cache key policy, nullable.
+         * @return this builder
+         */
+        public Builder cacheKeyPolicy(GliderCacheKeyPolicy policy) {
+            this.cacheKeyPolicy = policy;
+            return this;
+        }
+
+        /**
+         * set the decode size of the image instead of the size of the view.
+         *
+         * @param width  the width px, or {@link Target#SIZE_ORIGINAL} to use the size of the image.
+         * @param height the height px, or {@link Target#SIZE_ORIGINAL} to use the size of the image.
+         * @return this builder
+         */
+        public Builder override(int width, int height) {
+            this.overrideWidth = width;
+            this.overrideHeight = height;
+            return this;
+        }
+
+        /**
+         * set the multiplier applied to the size of the view (or override size) before decoding.
+         *
+         * @param sizeMultiplier the multiplier between 0 and 1.
+         * @return this builder
+         */
+        public Builder sizeMultiplier(float sizeMultiplier) {
+            if (sizeMultiplier <= 0f || sizeMultiplier > 1f) {
+                throw new IllegalArgumentException("sizeMultiplier must be between 0 and 1");
+            }
+            this.sizeMultiplier = sizeMultiplier;
+            return this;
+        }
+
+        /**
+         * set the downsample strategy used to decode the image,
+         * such as {@link Downsampler#AT_LEAST}, {@link Downsampler#AT_MOST} or {@link Downsampler#NONE}.
+         *
+         * @param downsampler the downsample strategy.
+         * @return this builder
+         */
+        public Builder downsample(Downsampler downsampler) {
+            this.downsampler = downsampler;
+            return this;
+        }
+
+        /**
+         * set the decode format of the image, such as {@link DecodeFormat#PREFER_RGB_565} to halve the memory
+         * of opaque images. the transparent transform types set to {@link DecodeFormat#PREFER_RGB_565} decode with
+         * {@link DecodeFormat#PREFER_ARGB_8888} instead. default is {@link Glider#setDefaultDecodeFormat(DecodeFormat)},
+         * or the format of glide as is if neither is set.
+         *
+         * @param decodeFormat the decode format.
+         * @return this builder
+         */
+        public Builder decodeFormat(DecodeFormat decodeFormat) {
+            this.decodeFormat = decodeFormat;
+            return this;
+        }
+
+        /**
+         * set the priority of the request.
+         * the request with the priority set is not canceled when the view detached, see {@link #autoPriority(boolean)}.
+         *
+         * @param priority the priority
+         * @return this builder
+         */
+        public Builder priority(Priority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * set the priority of the request by the visibility of the view when loading,
+         * {@link Priority#HIGH} if the view is attached and shown, {@link Priority#LOW} if it's attached but hidden,
+         * otherwise {@link Priority#NORMAL} for the view bound before attached.
+         * the unfinished request is canceled when the view detached, and loaded again with the new priority
+         * when the view attached again.
+         * NOTE: ignored if {@link #priority(Priority)} is set.
+         *
+         * @param autoPriority enable auto priority.
+         * @return this builder
+         */
+        public Builder autoPriority(boolean autoPriority) {
+            this.autoPriority = autoPriority;
+            return this;
+        }
+
+        /**
+         * show a thumbnail of the image with the given size multiplier while the full image is loading,
+         * the thumbnail is transformed the same as the full image.
+         *
+         * @param sizeMultiplier the multiplier of the thumbnail size between 0 and 1.
+         * @return this builder
+         */
+        public Builder thumbnail(float sizeMultiplier) {
+            if (sizeMultiplier <= 0f || sizeMultiplier > 1f) {
+                throw new IllegalArgumentException("sizeMultiplier must be between 0 and 1");
+            }
+            this.thumbnailMultiplier = sizeMultiplier;
+            this.thumbnailUri = null;
+            return this;
+        }
+
+        /**
+         * show a low resolution image of the given uri while the full image is loading,
+         * the thumbnail is transformed the same as the full image.
+         *
+         * @param lowResUri the string uri of the low resolution image.
+         * @return this builder
+         */
+        public Builder thumbnail(String lowResUri) {
+            this.thumbnailUri = lowResUri;
+            this.thumbnailMultiplier = 0f;
+            return this;
+        }
+
+        /**
+         * set whether to draw the shape of transform type at draw time instead of transforming the bitmap,
+         * then the caches keep only the untransformed bitmap, which serves every shape and radius.
+         * the square shapes are centered in the view.
+         * default is {@link Glider#setDrawTimeShape(boolean)}.
+         *
+         * @param drawTimeShape enable draw time shape.
+         * @return this builder
+         */
+        public Builder drawTimeShape(boolean drawTimeShape) {
+            this.drawTimeShape = drawTimeShape;
+            return this;
+        }
+
+        /**
+         * set how to decode and play the animated gif, such as {@link GifMode#STATIC} for the small views.
+         * default is {@link Glider#setDefaultGifMode} of the transform type.
+         *
+         * @param gifMode the gif mode.
+         * @return this builder
+         */
+        public Builder gifMode(GifMode gifMode) {
+            this.gifMode = gifMode;
+            return this;
+        }
+
         /**
          * transform the image to a circle image.
          * NOTE: should call only one of the transform* methods,only the latest one will be useful
@@ -212,6 +714,20 @@ public class GliderOption {
             return this;
         }
 
+        /**
+         * set whether to use the average color of the image as the placeholder, instead of the loading drawable.
+         * the color is sampled when the image is loaded at the first time, and kept in a small file in the cache dir,
+         * so the placeholder is colored at the later loads without extra decoding or network.
+         * default is {@link Glider#setColorPlaceholder(boolean)}.
+         *
+         * @param colorPlaceholder enable color placeholder.
+         * @return this builder
+         */
+        public Builder colorPlaceholder(boolean colorPlaceholder) {
+            this.colorPlaceholder = colorPlaceholder;
+            return this;
+        }
+
         /**
          * set a glider listener.
          *
@@ -223,6 +739,17 @@ public class GliderOption {
             return this;
         }
 
+        /**
+         * set a metrics listener, to get the timing and cache source of this request.
+         *
+         * @param metricsListener glider metrics listener to be set.
+         * @return this builder
+         */
+        public Builder metricsListener(GliderMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
         private void checkTransformType() {
             if (this.transformType != TransformType.NONE) {
                 Log.w(GliderOption.class.getSimpleName(),
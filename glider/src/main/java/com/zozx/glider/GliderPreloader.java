@@ -0,0 +1,117 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.widget.AbsListView;
+import android.widget.ImageView;
+
+import com.bumptech.glide.GenericRequestBuilder;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * preload the images of the upcoming list items with {@link Glider#preload}.
+ * set it as the scroll listener of a ListView, or call {@link #onScrolled(int, int, int)}
+ * in the scroll listener of a RecyclerView.
+ * the preloads of the positions scrolled away will be canceled.
+ */
+@SuppressWarnings("unused")
+public class GliderPreloader implements AbsListView.OnScrollListener {
+
+    private final ListPreloader<GliderOption> preloader;
+
+    /**
+     * create a preloader, the images are scaled as the views of the options, see {@link Glider#preload}.
+     *
+     * @param context    the context
+     * @param provider   the provider of the option of each position.
+     * @param width      the width px of the item view which will display the image.
+     * @param height     the height px of the item view which will display the image.
+     * @param maxPreload the count of positions to preload.
+     */
+    public GliderPreloader(Context context, OptionProvider provider, int width, int height, int maxPreload) {
+        this(context, provider, width, height, maxPreload, null);
+    }
+
+    /**
+     * create a preloader.
+     *
+     * @param context    the context
+     * @param provider   the provider of the option of each position.
+     * @param width      the width px of the item view which will display the image.
+     * @param height     the height px of the item view which will display the image.
+     * @param maxPreload the count of positions to preload.
+     * @param scaleType  the scale type of the item view which will display the image.
+     */
+    public GliderPreloader(Context context, OptionProvider provider, int width, int height, int maxPreload,
+                           ImageView.ScaleType scaleType) {
+        this.preloader = new ListPreloader<>(new ModelProvider(context, provider, scaleType),
+                new FixedPreloadSizeProvider<GliderOption>(width, height), maxPreload);
+    }
+
+    @Override
+    public void onScrollStateChanged(AbsListView view, int scrollState) {
+    }
+
+    @Override
+    public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+        preloader.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+    }
+
+    /**
+     * invoked when the list scrolled, used for the list which is not a AbsListView, such as RecyclerView.
+     *
+     * @param firstVisibleItem the first visible position.
+     * @param visibleItemCount the count of visible positions.
+     * @param totalItemCount   the count of all positions.
+     */
+    public void onScrolled(int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+        preloader.onScroll(null, firstVisibleItem, visibleItemCount, totalItemCount);
+    }
+
+    /**
+     * provide the option of each position to preload.
+     */
+    public interface OptionProvider {
+
+        /**
+         * get the option of the position, it should be the same as the option to display the image.
+         *
+         * @param position the position
+         * @return the option, or null if nothing to preload.
+         */
+        GliderOption getOption(int position);
+    }
+
+    private static class ModelProvider implements ListPreloader.PreloadModelProvider<GliderOption> {
+
+        private final Context context;
+        private final OptionProvider provider;
+        private final ImageView.ScaleType scaleType;
+        private RequestManager manager;
+
+        ModelProvider(Context context, OptionProvider provider, ImageView.ScaleType scaleType) {
+            this.context = context;
+            this.provider = provider;
+            this.scaleType = scaleType;
+        }
+
+        @Override
+        public List<GliderOption> getPreloadItems(int position) {
+            GliderOption option = provider.getOption(position);
+            return option == null ? Collections.<GliderOption>emptyList() : Collections.singletonList(option);
+        }
+
+        @Override
+        public GenericRequestBuilder getPreloadRequestBuilder(GliderOption item) {
+            if (manager == null) {
+                manager = Glide.with(context);
+            }
+            return Glider.buildPreloadRequest(manager, context, item, scaleType);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.zozx.glider;
+
+import java.util.Random;
+
+/**
+ * the retry policy of the failed network loads, set it by {@link GliderOption.Builder#retry(GliderRetryPolicy)}.
+ * the delay of each retry grows exponentially with a random jitter, so the views failed together don't retry together.
+ * the error drawable is displayed after the last attempt failed.
+ * only the failed fetches are retried, the client errors 4xx and the images failed to decode fail at once.
+ * a policy is immutable, one instance can be shared by all options.
+ */
+@SuppressWarnings("unused")
+public final class GliderRetryPolicy {
+
+    private static final Random JITTER = new Random();
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * create a retry policy.
+     *
+     * @param maxAttempts        the max count of attempts including the first load, such as 3.
+     * @param initialDelayMillis the delay before the first retry, doubled for each next retry.
+     * @param maxDelayMillis     the max delay of a retry.
+     */
+    public GliderRetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("delay must be 0 <= initialDelayMillis <= maxDelayMillis");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * get the delay before a retry, a random value between the half and the whole of the exponential delay.
+     *
+     * @param retry the count of retries, 1 for the first retry.
+     * @return the delay in milliseconds.
+     */
+    public long delayMillis(int retry) {
+        long delay = initialDelayMillis << Math.min(retry - 1, 30);
+        if (delay > maxDelayMillis || delay < 0) {
+            delay = maxDelayMillis;
+        }
+        long half = delay / 2;
+        synchronized (JITTER) {
+            return half + (long) (JITTER.nextDouble() * (delay - half));
+        }
+    }
+}
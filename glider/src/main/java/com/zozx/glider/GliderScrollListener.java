@@ -0,0 +1,93 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.widget.AbsListView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+
+/**
+ * pause the requests while the list is flinging, and resume them when the fling ends.
+ * the images in the memory cache are still displayed while paused.
+ * set it as the scroll listener of a ListView or GridView, or call {@link #onScrollStateChanged(int)}
+ * in the scroll listener of a RecyclerView.
+ */
+@SuppressWarnings("unused")
+public class GliderScrollListener implements AbsListView.OnScrollListener {
+
+    private final RequestManager manager;
+    private final AbsListView.OnScrollListener delegate;
+    private boolean paused;
+
+    /**
+     * create a scroll listener pausing the requests of the context.
+     *
+     * @param context the context which the images are loaded with, should be the activity.
+     */
+    public GliderScrollListener(Context context) {
+        this(Glide.with(context), null);
+    }
+
+    /**
+     * create a scroll listener pausing the requests of the session.
+     *
+     * @param session the session which the images are loaded with.
+     */
+    public GliderScrollListener(GliderSession session) {
+        this(session.requestManager(), null);
+    }
+
+    /**
+     * create a scroll listener pausing the requests of the manager.
+     *
+     * @param manager  the request manager of glide which the images are loaded with.
+     * @param delegate the scroll listener to receive the scroll events too, such as a {@link GliderPreloader}, nullable.
+     */
+    public GliderScrollListener(RequestManager manager, AbsListView.OnScrollListener delegate) {
+        this.manager = manager;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onScrollStateChanged(AbsListView view, int scrollState) {
+        onScrollStateChanged(scrollState);
+        if (delegate != null) {
+            delegate.onScrollStateChanged(view, scrollState);
+        }
+    }
+
+    @Override
+    public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+        if (delegate != null) {
+            delegate.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+        }
+    }
+
+    /**
+     * invoked when the scroll state changed, used for the list which is not a AbsListView, such as RecyclerView.
+     * the states of RecyclerView have the same values as AbsListView, SCROLL_STATE_SETTLING is the fling.
+     *
+     * @param scrollState the scroll state, one of {@link #SCROLL_STATE_IDLE},
+     *                    {@link #SCROLL_STATE_TOUCH_SCROLL} and {@link #SCROLL_STATE_FLING}.
+     */
+    public void onScrollStateChanged(int scrollState) {
+        setFlinging(scrollState == SCROLL_STATE_FLING);
+    }
+
+    /**
+     * pause the requests when the fling starts, resume them when it ends.
+     *
+     * @param flinging true if the list is flinging.
+     */
+    public void setFlinging(boolean flinging) {
+        if (flinging == paused) {
+            return;
+        }
+        paused = flinging;
+        if (flinging) {
+            manager.pauseRequests();
+        } else {
+            manager.resumeRequests();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.zozx.glider;
+
+import android.app.Activity;
+import android.support.annotation.DrawableRes;
+import android.widget.ImageView;
+
+import com.bumptech.glide.RequestManager;
+
+import java.util.List;
+
+/**
+ * a glider session bound to the lifecycle of a activity or fragment, created by {@link Glider#session}.
+ * the request manager of glide is resolved once, so the loads in a session skip the lookup of glide for each image,
+ * and the requests are paused, resumed and cleared with the lifecycle.
+ */
+@SuppressWarnings("unused")
+public class GliderSession {
+
+    private final RequestManager manager;
+    private final Activity activity;
+    private final android.support.v4.app.Fragment supportFragment;
+    private final android.app.Fragment fragment;
+
+    GliderSession(RequestManager manager, Activity activity,
+                  android.support.v4.app.Fragment supportFragment, android.app.Fragment fragment) {
+        this.manager = manager;
+        this.activity = activity;
+        this.supportFragment = supportFragment;
+        this.fragment = fragment;
+    }
+
+    /**
+     * @return whether the activity or fragment of this session is still alive, the loads will be ignored if not.
+     */
+    public boolean isAlive() {
+        if (supportFragment != null) {
+            return supportFragment.getActivity() != null && !supportFragment.isDetached()
+                    && !supportFragment.getActivity().isFinishing();
+        }
+        if (fragment != null) {
+            return fragment.getActivity() != null && !fragment.isDetached() && !fragment.getActivity().isFinishing();
+        }
+        return activity != null && !activity.isFinishing();
+    }
+
+    /**
+     * @return the request manager of glide of this session.
+     */
+    public RequestManager requestManager() {
+        return manager;
+    }
+
+    /**
+     * display a image with given glider option
+     *
+     * @param option the option
+     */
+    public void load(GliderOption option) {
+        if (option != null && isAlive()) {
+            load(option.view(), option.uriString(), option.uriRes(), option);
+        }
+    }
+
+    /**
+     * display the images with given glider options, in order.
+     *
+     * @param options the options
+     */
+    public void loadAll(List<GliderOption> options) {
+        if (options == null || !isAlive()) {
+            return;
+        }
+        for (int i = 0, size = options.size(); i < size; i++) {
+            GliderOption option = options.get(i);
+            if (option != null) {
+                load(option.view(), option.uriString(), option.uriRes(), option);
+            }
+        }
+    }
+
+    /**
+     * display a image with given string uri into imageView with a reusable option profile.
+     *
+     * @param view    the view want to be used to display the image.
+     * @param uri     the string uri. can be a url or "file://" + File.
+     * @param profile the option profile, created by {@link GliderOption.Builder#Builder()}.
+     */
+    public void load(ImageView view, String uri, GliderOption profile) {
+        if (isAlive()) {
+            load(view, uri, 0, profile);
+        }
+    }
+
+    /**
+     * display a image with given drawable resource into imageView with a reusable option profile.
+     *
+     * @param view    the view want to be used to display the image.
+     * @param res     the drawable resource.
+     * @param profile the option profile, created by {@link GliderOption.Builder#Builder()}.
+     */
+    public void load(ImageView view, @DrawableRes int res, GliderOption profile) {
+        if (isAlive()) {
+            load(view, null, res, profile);
+        }
+    }
+
+    /**
+     * display a image with given string uri into imageView.
+     *
+     * @param view the view want to be used to display the image.
+     * @param uri  the string uri. can be a url or "file://" + File.
+     */
+    public void load(ImageView view, String uri) {
+        load(view, uri, Glider.PROFILE_URI);
+    }
+
+    /**
+     * display a image with given drawable resource into imageView.
+     *
+     * @param view the view want to be used to display the image.
+     * @param res  the drawable resource.
+     */
+    public void load(ImageView view, @DrawableRes int res) {
+        load(view, res, Glider.PROFILE_RES);
+    }
+
+    /**
+     * display a circle image with given string uri into imageView.
+     *
+     * @param view the view want to be used to display the image.
+     * @param uri  the string uri. can be a url or "file://" + File.
+     */
+    public void loadCircle(ImageView view, String uri) {
+        load(view, uri, Glider.PROFILE_CIRCLE_URI);
+    }
+
+    /**
+     * display a circle image with given drawable resource into imageView
+     *
+     * @param view the view want to be used to display the image.
+     * @param res  the drawable resource.
+     */
+    public void loadCircle(ImageView view, @DrawableRes int res) {
+        load(view, res, Glider.PROFILE_CIRCLE_RES);
+    }
+
+    /**
+     * display a circle image with given string uri into imageView,
+     * allow setting own error drawable when uri error.
+     *
+     * @param view  the view want to be used to display the image.
+     * @param uri   the string uri. can be a url or "file://" + File.
+     * @param error the drawable when error happened
+     */
+    public void loadCircle(ImageView view, String uri, @DrawableRes int error) {
+        load(view, uri, Glider.circleProfile(error));
+    }
+
+    /**
+     * display a square image with given string uri into imageView
+     *
+     * @param view the imageView to display the image.
+     * @param uri  the string uri. can be a url or "file://" + File.
+     */
+    public void loadSquare(ImageView view, String uri) {
+        load(view, uri, Glider.PROFILE_SQUARE_URI);
+    }
+
+    /**
+     * display a rounded corners image with given string uri into imageView,
+     * this method will set the corner with 5 dp.
+     *
+     * @param view the imageView to display the image.
+     * @param uri  the string uri. can be a url or "file://" + File.
+     */
+    public void loadRound(ImageView view, String uri) {
+        loadRound(view, uri, Glider.DEFAULT_RADIUS_DP);
+    }
+
+    /**
+     * display a rounded corners image with given drawable resource into imageView,
+     * this method will set the corner with 5 dp.
+     *
+     * @param view the imageView to display the image.
+     * @param res  the drawable resource
+     */
+    public void loadRound(ImageView view, @DrawableRes int res) {
+        loadRound(view, res, Glider.DEFAULT_RADIUS_DP);
+    }
+
+    /**
+     * display a rounded corners image with given string uri into imageView,
+     * allow setting the corner with dp value.
+     *
+     * @param view     the imageView to display the image.
+     * @param uri      the string uri. can be a url or "file://" + File.
+     * @param radiusDp the corner dp value to be set.
+     */
+    public void loadRound(ImageView view, String uri, float radiusDp) {
+        if (view == null) return;
+        load(view, uri, Glider.roundProfile(view.getContext(), TransformType.ROUND, radiusDp, false));
+    }
+
+    /**
+     * display a rounded corners image with given drawable resource into imageView,
+     * allow setting the corner with dp value.
+     *
+     * @param view     the imageView to display the image.
+     * @param res      the drawable resource
+     * @param radiusDp the corner dp value to be set.
+     */
+    public void loadRound(ImageView view, @DrawableRes int res, float radiusDp) {
+        if (view == null) return;
+        load(view, res, Glider.roundProfile(view.getContext(), TransformType.ROUND, radiusDp, true));
+    }
+
+    /**
+     * display a square round image with given string uri into imageView,
+     * this method will set the corner with 5 dp.
+     *
+     * @param view the view want to be used to display the image.
+     * @param uri  the string uri. can be a url or "file://" + File.
+     */
+    public void loadSquareRound(ImageView view, String uri) {
+        loadSquareRound(view, uri, Glider.DEFAULT_RADIUS_DP);
+    }
+
+    /**
+     * display a square round image with given drawable resource into imageView,
+     * this method will set the corner with 5 dp.
+     *
+     * @param view the view want to be used to display the image.
+     * @param res  the drawable resource.
+     */
+    public void loadSquareRound(ImageView view, @DrawableRes int res) {
+        loadSquareRound(view, res, Glider.DEFAULT_RADIUS_DP);
+    }
+
+    /**
+     * display a square round image with given string uri into imageView,
+     * allow setting the corner with dp value.
+     *
+     * @param view     the view want to be used to display the image.
+     * @param uri      the string uri. can be a url or "file://" + File.
+     * @param radiusDp the corner dp value to be set.
+     */
+    public void loadSquareRound(ImageView view, String uri, float radiusDp) {
+        if (view == null) return;
+        load(view, uri, Glider.roundProfile(view.getContext(), TransformType.SQUARE_ROUND, radiusDp, false));
+    }
+
+    /**
+     * display a square round image with given drawable resource into imageView,
+     * allow setting the corner with dp value.
+     *
+     * @param view     the view want to be used to display the image.
+     * @param res      the drawable resource.
+     * @param radiusDp the corner dp value to be set.
+     */
+    public void loadSquareRound(ImageView view, @DrawableRes int res, float radiusDp) {
+        if (view == null) return;
+        load(view, res, Glider.roundProfile(view.getContext(), TransformType.SQUARE_ROUND, radiusDp, true));
+    }
+
+    private void load(ImageView view, String uriString, @DrawableRes int uriRes, GliderOption option) {
+        if (view == null || option == null) {
+            return;
+        }
+        try {
+            Glider.load(manager, view, uriString, uriRes, option);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
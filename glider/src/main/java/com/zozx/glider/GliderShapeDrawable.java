@@ -0,0 +1,133 @@
+package com.zozx.glider;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+
+/**
+ * drawable center crops a bitmap into its bounds and draws it with the shape of {@link TransformType} at draw time,
+ * so the same cached bitmap can be shown as every shape and radius.
+ * the intrinsic size is the size of the bitmap, or the size of the center square for the square shapes,
+ * the same as the bitmap transformed by {@link CropShapeTransformation}, so a wrap_content view is measured.
+ */
+class GliderShapeDrawable extends GlideDrawable {
+
+    private static final int PAINT_FLAGS = Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG;
+
+    private final Bitmap bitmap;
+    private final TransformType type;
+    private final float radius;
+    private final Paint paint = new Paint(PAINT_FLAGS);
+    private final BitmapShader shader;
+    private final Matrix matrix = new Matrix();
+    private final RectF rect = new RectF();
+    private final int intrinsicWidth;
+    private final int intrinsicHeight;
+
+    GliderShapeDrawable(Bitmap bitmap, TransformType type, float radius) {
+        this.bitmap = bitmap;
+        this.type = type;
+        this.radius = radius;
+        this.shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        this.paint.setShader(shader);
+        if (type == TransformType.ROUND) {
+            this.intrinsicWidth = bitmap.getWidth();
+            this.intrinsicHeight = bitmap.getHeight();
+        } else {
+            int size = Math.min(bitmap.getWidth(), bitmap.getHeight());
+            this.intrinsicWidth = size;
+            this.intrinsicHeight = size;
+        }
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+        rect.set(bounds);
+        if (type != TransformType.ROUND) {
+            float size = Math.min(rect.width(), rect.height());
+            rect.inset((rect.width() - size) / 2f, (rect.height() - size) / 2f);
+        }
+        float scale = Math.max(rect.width() / bitmap.getWidth(), rect.height() / bitmap.getHeight());
+        matrix.setScale(scale, scale);
+        matrix.postTranslate(rect.left + (rect.width() - bitmap.getWidth() * scale) / 2f,
+                rect.top + (rect.height() - bitmap.getHeight() * scale) / 2f);
+        shader.setLocalMatrix(matrix);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        switch (type) {
+            case CIRCLE:
+                canvas.drawCircle(rect.centerX(), rect.centerY(), rect.width() / 2f, paint);
+                break;
+            case ROUND:
+            case SQUARE_ROUND:
+                canvas.drawRoundRect(rect, radius, radius, paint);
+                break;
+            default:
+                canvas.drawRect(rect, paint);
+                break;
+        }
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (paint.getAlpha() != alpha) {
+            paint.setAlpha(alpha);
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return intrinsicWidth;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return intrinsicHeight;
+    }
+
+    @Override
+    public boolean isAnimated() {
+        return false;
+    }
+
+    @Override
+    public void setLoopCount(int loopCount) {
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public boolean isRunning() {
+        return false;
+    }
+}
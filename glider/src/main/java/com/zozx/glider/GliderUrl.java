@@ -0,0 +1,39 @@
+package com.zozx.glider;
+
+/**
+ * the model of a network image loaded by {@link GliderUrlLoader}, with the cache key by {@link GliderCacheKeyPolicy},
+ * and the url rewritten for the target size at fetch by {@link GliderUrlTransformer}.
+ */
+final class GliderUrl {
+
+    final String uri;
+    final String key;
+    final GliderUrlTransformer transformer;
+    final TransformType transformType;
+
+    GliderUrl(String uri, String key, GliderUrlTransformer transformer, TransformType transformType) {
+        this.uri = uri;
+        this.key = key;
+        this.transformer = transformer;
+        this.transformType = transformType;
+    }
+
+    /**
+     * @return the url to fetch for the target size.
+     */
+    String toUrl(int width, int height) {
+        return transformer == null ? uri : transformer.transform(uri, Math.max(width, 0), Math.max(height, 0), transformType);
+    }
+
+    /**
+     * @return the id of the source of the target size.
+     */
+    String cacheKey(int width, int height) {
+        return transformer == null ? key : key + '@' + width + 'x' + height;
+    }
+
+    @Override
+    public String toString() {
+        return uri;
+    }
+}
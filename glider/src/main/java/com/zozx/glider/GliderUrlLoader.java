@@ -0,0 +1,93 @@
+package com.zozx.glider;
+
+import android.content.Context;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.stream.StreamModelLoader;
+
+import java.io.InputStream;
+
+/**
+ * the loader of {@link GliderUrl}, fetches the rewritten url by the url loader registered to glide,
+ * such as the okhttp loader, and keeps the cache key of the original url.
+ */
+final class GliderUrlLoader implements StreamModelLoader<GliderUrl> {
+
+    private static volatile GliderUrlLoader instance;
+
+    private final ModelLoader<GlideUrl, InputStream> urlLoader;
+
+    private GliderUrlLoader(ModelLoader<GlideUrl, InputStream> urlLoader) {
+        this.urlLoader = urlLoader;
+    }
+
+    static GliderUrlLoader get(Context context) {
+        if (instance == null) {
+            synchronized (GliderUrlLoader.class) {
+                if (instance == null) {
+                    instance = new GliderUrlLoader(Glide.buildStreamModelLoader(GlideUrl.class, context.getApplicationContext()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public DataFetcher<InputStream> getResourceFetcher(GliderUrl model, int width, int height) {
+        return new Fetcher(urlLoader, model, width, height);
+    }
+
+    /**
+     * resolves the url at the fetch on the source thread, so the transformer doesn't run on main thread.
+     */
+    private static class Fetcher implements DataFetcher<InputStream> {
+
+        private final ModelLoader<GlideUrl, InputStream> urlLoader;
+        private final GliderUrl model;
+        private final int width;
+        private final int height;
+        private volatile DataFetcher<InputStream> fetcher;
+        private volatile boolean cancelled;
+
+        Fetcher(ModelLoader<GlideUrl, InputStream> urlLoader, GliderUrl model, int width, int height) {
+            this.urlLoader = urlLoader;
+            this.model = model;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public InputStream loadData(Priority priority) throws Exception {
+            if (cancelled) {
+                return null;
+            }
+            fetcher = urlLoader.getResourceFetcher(new GlideUrl(model.toUrl(width, height)), width, height);
+            return fetcher.loadData(priority);
+        }
+
+        @Override
+        public void cleanup() {
+            if (fetcher != null) {
+                fetcher.cleanup();
+            }
+        }
+
+        @Override
+        public String getId() {
+            return model.cacheKey(width, height);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            DataFetcher<InputStream> fetcher = this.fetcher;
+            if (fetcher != null) {
+                fetcher.cancel();
+            }
+        }
+    }
+}
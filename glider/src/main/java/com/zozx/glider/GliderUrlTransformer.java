@@ -0,0 +1,21 @@
+package com.zozx.glider;
+
+/**
+ * rewrite the url of an image for the size it is displayed at, such as adding the width and height
+ * to the query of a resizing cdn. set it by {@link Glider#setUrlTransformer(GliderUrlTransformer)}
+ * or {@link GliderOption.Builder#urlTransformer(GliderUrlTransformer)}.
+ * the cache key of the image is the original url with the size, so the rewritten url doesn't need to be stable.
+ */
+public interface GliderUrlTransformer {
+
+    /**
+     * invoked on a source thread of glide before the fetch.
+     *
+     * @param uri    the original url of the option.
+     * @param width  the target width px of the image, 0 if the original size is requested.
+     * @param height the target height px of the image, 0 if the original size is requested.
+     * @param type   the transform type of the option.
+     * @return the url to fetch.
+     */
+    String transform(String uri, int width, int height, TransformType type);
+}
@@ -0,0 +1,648 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+
+import com.bumptech.glide.DrawableRequestBuilder;
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.stream.StreamModelLoader;
+import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+import com.bumptech.glide.load.resource.transcode.GifBitmapWrapperDrawableTranscoder;
+import com.bumptech.glide.load.resource.transcode.GlideBitmapDrawableTranscoder;
+import com.bumptech.glide.load.resource.transcode.ResourceTranscoder;
+import com.bumptech.glide.request.animation.GlideAnimation;
+import com.bumptech.glide.request.target.SimpleTarget;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a job to warm up the caches with the images of a url manifest, such as the images of the first screen at startup.
+ * each entry is loaded with the size, decoders and transformations of its option, as {@link Glider#load} does,
+ * so the later loads of the same option and size hit the caches.
+ * the images are fetched and decoded by the threads of glide, at most {@link #parallelism(int)} at once.
+ * with {@link #maxBytesPerSecond(long)}, the network images missed in the caches are fetched by the threads of the job
+ * under the limit instead, and then decoded by glide from the fetched bytes, so the threads of glide are never held
+ * by the limit and the foreground loads are not blocked.
+ * the caches are checked by a probe load before the fetch, which has its own engine key so the foreground loads
+ * never join it, and the same disk cache keys as {@link Glider#load}.
+ * <p>
+ * the job can be cancelled by {@link #cancel()} and resumed by {@link #start()}, the finished entries are not loaded again.
+ * the methods can be called on any thread, the listener is invoked on main thread.
+ */
+@SuppressWarnings("unused")
+public class GliderWarmUp {
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final Context context;
+    private final List<Entry> entries = new ArrayList<>();
+    private RequestManager manager;
+    private ThreadPoolExecutor executor;
+    private ProbeTranscoder probeTranscoder;
+    private Throttle throttle;
+    private int parallelism = 2;
+    private boolean memoryCache;
+    private Listener listener;
+    private boolean started;
+    private int running;
+    private volatile int completed;
+    private volatile int hits;
+    private volatile int misses;
+    private volatile int failures;
+
+    /**
+     * create a warm up job.
+     *
+     * @param context the context
+     */
+    public GliderWarmUp(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * add an entry to warm up, should be called before {@link #start()}.
+     *
+     * @param option the option of the image, with the string uri and the transform type to display it.
+     * @param width  the width px of the view which will display the image.
+     * @param height the height px of the view which will display the image.
+     * @return this job
+     */
+    public synchronized GliderWarmUp add(GliderOption option, int width, int height) {
+        if (option.uriString() == null) {
+            throw new IllegalArgumentException("warm up needs a string uri");
+        }
+        entries.add(new Entry(option, width, height));
+        return this;
+    }
+
+    /**
+     * set the max count of images loading at once, 2 by default.
+     *
+     * @param parallelism the count, at least 1.
+     * @return this job
+     */
+    public synchronized GliderWarmUp parallelism(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+        return this;
+    }
+
+    /**
+     * set the max bytes per second of the fetch of all images, so the warm up doesn't slow down the network of the app.
+     *
+     * @param maxBytesPerSecond the max bytes per second, 0 for no limit which is the default.
+     * @return this job
+     */
+    public synchronized GliderWarmUp maxBytesPerSecond(long maxBytesPerSecond) {
+        this.throttle = maxBytesPerSecond > 0 ? new Throttle(maxBytesPerSecond) : null;
+        return this;
+    }
+
+    /**
+     * set whether to keep the images in the memory cache too, only the disk cache is filled by default.
+     *
+     * @param memoryCache true to fill the memory cache.
+     * @return this job
+     */
+    public synchronized GliderWarmUp memoryCache(boolean memoryCache) {
+        this.memoryCache = memoryCache;
+        return this;
+    }
+
+    /**
+     * set the listener of the progress.
+     *
+     * @param listener the listener, nullable.
+     * @return this job
+     */
+    public synchronized GliderWarmUp listener(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * start the job, or resume it after {@link #cancel()}.
+     */
+    public void start() {
+        runOnMain(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (GliderWarmUp.this) {
+                    started = true;
+                    if (manager == null) {
+                        manager = Glide.with(context);
+                    }
+                    if (throttle != null && executor == null) {
+                        executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                                new LinkedBlockingQueue<Runnable>(), GliderExecutors.newThreadFactory("glider-warm-up"));
+                        executor.allowCoreThreadTimeOut(true);
+                        probeTranscoder = new ProbeTranscoder(context);
+                    }
+                }
+                startNext();
+            }
+        });
+    }
+
+    /**
+     * cancel the loading entries, they will be loaded again when resumed by {@link #start()}.
+     */
+    public void cancel() {
+        runOnMain(new Runnable() {
+            @Override
+            public void run() {
+                List<Entry> cancelled = new ArrayList<>();
+                synchronized (GliderWarmUp.this) {
+                    started = false;
+                    for (Entry entry : entries) {
+                        if (entry.state == RUNNING) {
+                            entry.state = PENDING;
+                            cancelled.add(entry);
+                            if (entry.fetch != null) {
+                                entry.fetch.cancel(true);
+                                entry.fetch = null;
+                            }
+                        }
+                    }
+                    running = 0;
+                }
+                for (Entry entry : cancelled) {
+                    Glide.clear(entry.target);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the count of all entries.
+     */
+    public synchronized int total() {
+        return entries.size();
+    }
+
+    /**
+     * @return the count of finished entries, successfully or not.
+     */
+    public int completed() {
+        return completed;
+    }
+
+    /**
+     * @return the count of entries loaded from the caches without a fetch.
+     */
+    public int hits() {
+        return hits;
+    }
+
+    /**
+     * @return the count of entries fetched from the network.
+     */
+    public int misses() {
+        return misses;
+    }
+
+    /**
+     * @return the count of failed entries.
+     */
+    public int failures() {
+        return failures;
+    }
+
+    /**
+     * @return true if all entries are finished.
+     */
+    public synchronized boolean isFinished() {
+        return completed == entries.size();
+    }
+
+    private void startNext() {
+        List<Entry> next = new ArrayList<>();
+        RequestManager manager;
+        synchronized (this) {
+            if (!started) {
+                return;
+            }
+            manager = this.manager;
+            for (int i = 0, size = entries.size(); i < size && running < parallelism; i++) {
+                Entry entry = entries.get(i);
+                if (entry.state == PENDING) {
+                    entry.state = RUNNING;
+                    entry.fetched = false;
+                    entry.fetcher = null;
+                    entry.probe = throttle != null && executor != null && entry.source == null && isNetwork(entry.option);
+                    entry.target = new EntryTarget(entry);
+                    running++;
+                    next.add(entry);
+                }
+            }
+        }
+        for (Entry entry : next) {
+            buildRequest(manager, entry).into(entry.target);
+        }
+    }
+
+    private DrawableRequestBuilder<?> buildRequest(RequestManager manager, Entry entry) {
+        GliderOption option = entry.option;
+        String uri = option.uriString();
+        GliderUrl url = Glider.glideUrl(option, uri);
+        boolean probe = entry.probe;
+        DrawableRequestBuilder<?> request;
+        if (option.localFile() != null) {
+            // the local files are loaded as Glider#load does, without the limit of network.
+            request = manager.using(new CountingLoader<LocalFile>(LocalFileLoader.get(), entry, false))
+                    .load(option.localFile());
+        } else if (url != null) {
+            request = manager.using(new CountingLoader<GliderUrl>(GliderUrlLoader.get(context), entry, probe))
+                    .load(url);
+        } else {
+            request = manager.using(new CountingLoader<String>(Glide.buildStreamModelLoader(String.class, context), entry, probe))
+                    .load(uri);
+        }
+        request.diskCacheStrategy(option.diskCacheStrategy())
+                .skipMemoryCache(probe || !memoryCache)
+                .priority(Priority.LOW);
+        Glider.applyCacheOption(request, context, option);
+        if (probe) {
+            request.transcoder(probeTranscoder);
+        }
+        return request;
+    }
+
+    private static boolean isNetwork(GliderOption option) {
+        return option.localFile() == null && option.uriString().regionMatches(true, 0, "http", 0, 4);
+    }
+
+    /**
+     * fetch the source of the entry under the limit on the threads of the job, and load it again from the fetched bytes.
+     */
+    private void fetch(final Entry entry, final EntryTarget target) {
+        final DataFetcher<InputStream> fetcher = entry.fetcher;
+        synchronized (this) {
+            if (entry.state != RUNNING || entry.target != target) {
+                return;
+            }
+            final Throttle throttle = this.throttle;
+            entry.fetch = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    final byte[] source = read(fetcher, throttle);
+                    GliderExecutors.main().post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onFetched(entry, target, source);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private void onFetched(Entry entry, EntryTarget target, byte[] source) {
+        synchronized (this) {
+            if (!started || entry.state != RUNNING || entry.target != target) {
+                return;
+            }
+            entry.fetch = null;
+        }
+        if (source == null) {
+            onEntryFinished(entry, false);
+            return;
+        }
+        entry.source = source;
+        reload(entry, target);
+    }
+
+    /**
+     * load the entry again after the probe, with the engine key of {@link Glider#load},
+     * to decode the fetched source or to fill the memory cache.
+     */
+    private void reload(Entry entry, EntryTarget target) {
+        RequestManager manager;
+        EntryTarget next = new EntryTarget(entry);
+        synchronized (this) {
+            manager = this.manager;
+            entry.probe = false;
+            entry.target = next;
+        }
+        Glide.clear(target);
+        buildRequest(manager, entry).into(next);
+    }
+
+    /**
+     * read all bytes of the fetcher under the limit.
+     *
+     * @return the bytes, or null if the fetch failed or cancelled.
+     */
+    private static byte[] read(DataFetcher<InputStream> fetcher, Throttle throttle) {
+        try {
+            InputStream in = fetcher.loadData(Priority.LOW);
+            if (in == null) {
+                return null;
+            }
+            InputStream throttled = throttle != null ? new ThrottledInputStream(in, throttle) : in;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = throttled.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (Exception e) {
+            return null;
+        } finally {
+            fetcher.cleanup();
+        }
+    }
+
+    private void onEntryFinished(Entry entry, boolean success) {
+        Listener listener;
+        boolean finished;
+        synchronized (this) {
+            if (entry.state != RUNNING) {
+                return;
+            }
+            entry.state = DONE;
+            entry.source = null;
+            entry.fetcher = null;
+            running--;
+            if (!success) {
+                failures++;
+            } else if (entry.fetched) {
+                misses++;
+            } else {
+                hits++;
+            }
+            completed++;
+            listener = this.listener;
+            finished = completed == entries.size();
+        }
+        // release the image to the memory cache, or to the bitmap pool if the memory cache is skipped.
+        Glide.clear(entry.target);
+        if (listener != null) {
+            listener.onProgress(this);
+            if (finished) {
+                listener.onFinished(this);
+            }
+        }
+        startNext();
+    }
+
+    private static void runOnMain(Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            runnable.run();
+        } else {
+            GliderExecutors.main().post(runnable);
+        }
+    }
+
+    /**
+     * the listener of a warm up job, invoked on main thread.
+     */
+    public interface Listener {
+
+        /**
+         * invoked when an entry finished.
+         *
+         * @param warmUp the job, to get the progress and the stats.
+         */
+        void onProgress(GliderWarmUp warmUp);
+
+        /**
+         * invoked when all entries finished.
+         *
+         * @param warmUp the job, to get the stats.
+         */
+        void onFinished(GliderWarmUp warmUp);
+    }
+
+    private static class Entry {
+
+        final GliderOption option;
+        final int width;
+        final int height;
+        int state = PENDING;
+        volatile boolean fetched;
+        // the fetcher of the source missed in the caches, and the source fetched under the limit.
+        volatile DataFetcher<InputStream> fetcher;
+        volatile byte[] source;
+        Future<?> fetch;
+        boolean probe;
+        EntryTarget target;
+
+        Entry(GliderOption option, int width, int height) {
+            this.option = option;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private class EntryTarget extends SimpleTarget<GlideDrawable> {
+
+        private final Entry entry;
+
+        EntryTarget(Entry entry) {
+            super(entry.width, entry.height);
+            this.entry = entry;
+        }
+
+        @Override
+        public void onResourceReady(GlideDrawable resource, GlideAnimation<? super GlideDrawable> glideAnimation) {
+            if (entry.probe && memoryCache) {
+                // the probe skips the memory cache, load again from the disk cache to fill it.
+                reload(entry, this);
+            } else {
+                onEntryFinished(entry, true);
+            }
+        }
+
+        @Override
+        public void onLoadFailed(Exception e, Drawable errorDrawable) {
+            if (entry.probe && e instanceof DeferredFetchException && entry.fetcher != null) {
+                fetch(entry, this);
+            } else {
+                onEntryFinished(entry, false);
+            }
+        }
+    }
+
+    /**
+     * the transcoder of the probe loads, the id differs from the default one of glide so the engine key is different,
+     * and the disk cache keys are the same since the transcoder is not a part of them.
+     */
+    private static class ProbeTranscoder implements ResourceTranscoder<GifBitmapWrapper, GlideDrawable> {
+
+        private final GifBitmapWrapperDrawableTranscoder transcoder;
+
+        ProbeTranscoder(Context context) {
+            this.transcoder = new GifBitmapWrapperDrawableTranscoder(new GlideBitmapDrawableTranscoder(context));
+        }
+
+        @Override
+        public Resource<GlideDrawable> transcode(Resource<GifBitmapWrapper> toTranscode) {
+            return transcoder.transcode(toTranscode);
+        }
+
+        @Override
+        public String getId() {
+            return "ProbeTranscoder.com.zozx.glider";
+        }
+    }
+
+    /**
+     * the load of glide is failed with it when the source must be fetched by the threads of the job.
+     */
+    private static class DeferredFetchException extends IOException {
+
+        DeferredFetchException() {
+            super("the source is fetched by the warm up");
+        }
+    }
+
+    /**
+     * the loader marks the entry as fetched when the fetch is opened.
+     * the id of the fetcher is the same as the one of the delegate, so the cache keys are the same as {@link Glider#load}.
+     * if deferred, the source missed in the caches is not fetched on the thread of glide, the probe load fails with
+     * {@link DeferredFetchException} to fetch it under the limit, and the fetched bytes are decoded at the next load.
+     */
+    private static class CountingLoader<T> implements StreamModelLoader<T> {
+
+        private final ModelLoader<T, InputStream> delegate;
+        private final Entry entry;
+        private final boolean deferred;
+
+        CountingLoader(ModelLoader<T, InputStream> delegate, Entry entry, boolean deferred) {
+            this.delegate = delegate;
+            this.entry = entry;
+            this.deferred = deferred;
+        }
+
+        @Override
+        public DataFetcher<InputStream> getResourceFetcher(final T model, final int width, final int height) {
+            final DataFetcher<InputStream> fetcher = delegate.getResourceFetcher(model, width, height);
+            return new DataFetcher<InputStream>() {
+                @Override
+                public InputStream loadData(Priority priority) throws Exception {
+                    entry.fetched = true;
+                    byte[] source = entry.source;
+                    if (source != null) {
+                        return new ByteArrayInputStream(source);
+                    }
+                    if (!deferred) {
+                        return fetcher.loadData(priority);
+                    }
+                    // a new fetcher of the same model and size, for the threads of the job.
+                    entry.fetcher = delegate.getResourceFetcher(model, width, height);
+                    throw new DeferredFetchException();
+                }
+
+                @Override
+                public void cleanup() {
+                    fetcher.cleanup();
+                }
+
+                @Override
+                public String getId() {
+                    return fetcher.getId();
+                }
+
+                @Override
+                public void cancel() {
+                    fetcher.cancel();
+                }
+            };
+        }
+    }
+
+    /**
+     * the bytes per second limit shared by the fetches of a job.
+     */
+    private static class Throttle {
+
+        private final long nanosPerByte;
+        private long next;
+
+        Throttle(long maxBytesPerSecond) {
+            this.nanosPerByte = Math.max(1000000000L / maxBytesPerSecond, 1);
+        }
+
+        /**
+         * reserve the bytes read and wait until the rate is under the limit.
+         */
+        void acquire(int bytes) throws InterruptedIOException {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (next < now) {
+                    next = now;
+                }
+                wait = next - now;
+                next += bytes * nanosPerByte;
+            }
+            if (wait <= 0) {
+                return;
+            }
+            try {
+                Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    private static class ThrottledInputStream extends FilterInputStream {
+
+        private final Throttle throttle;
+
+        ThrottledInputStream(InputStream in, Throttle throttle) {
+            super(in);
+            this.throttle = throttle;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                throttle.acquire(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, count);
+            if (read > 0) {
+                throttle.acquire(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            if (skipped > 0) {
+                throttle.acquire((int) Math.min(skipped, Integer.MAX_VALUE));
+            }
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.zozx.glider;
+
+import android.os.SystemClock;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * the circuit breaker of the image hosts, set it by {@link Glider#setCircuitBreaker(int, long)}.
+ * after the given count of successive failures of a host, the loads of the host fail fast to the error drawable
+ * until the open time passes. then one load is let through, the circuit closes if it succeeds,
+ * or opens again if it fails. a successful fetch from the host resets the count of failures.
+ * only the failed fetches are counted, see {@link #isHostFailure(Exception)}, the loads from the disk cache
+ * and the images failed to decode neither count nor reset.
+ */
+final class HostCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Map<String, State> states = new HashMap<>();
+
+    HostCircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @param uri the uri to load.
+     * @return true if the loads of the host of the uri should fail fast.
+     */
+    boolean isOpen(String uri) {
+        String host = host(uri);
+        if (host == null) {
+            return false;
+        }
+        synchronized (states) {
+            State state = states.get(host);
+            if (state == null || state.openUntil == 0) {
+                return false;
+            }
+            long now = SystemClock.elapsedRealtime();
+            if (now < state.openUntil) {
+                return true;
+            }
+            // half open, let this load through and keep the others failing until it finishes.
+            state.openUntil = now + openMillis;
+            return false;
+        }
+    }
+
+    void onSuccess(String uri) {
+        String host = host(uri);
+        if (host == null) {
+            return;
+        }
+        synchronized (states) {
+            states.remove(host);
+        }
+    }
+
+    void onFailure(String uri) {
+        String host = host(uri);
+        if (host == null) {
+            return;
+        }
+        synchronized (states) {
+            State state = states.get(host);
+            if (state == null) {
+                state = new State();
+                states.put(host, state);
+            }
+            if (++state.failures >= failureThreshold) {
+                state.openUntil = SystemClock.elapsedRealtime() + openMillis;
+            }
+        }
+    }
+
+    /**
+     * whether the exception of a fetch is a failure of the host, such as a timeout, a broken connection or a server error.
+     * the client errors 4xx, such as an image not found, are not, the host is healthy and a retry doesn't help.
+     *
+     * @param e the exception thrown by the fetch.
+     * @return true if the exception is a failure of the host.
+     */
+    static boolean isHostFailure(Exception e) {
+        int code = statusCode(e);
+        return code < 400 || code >= 500;
+    }
+
+    /**
+     * get the http status code of the exception of a failed fetch, thrown by the url loader of glide
+     * as "Request failed 404: Not Found", or by the okhttp integration as "Request failed with code: 404".
+     *
+     * @return the status code, or -1 if the exception is not of a status code.
+     */
+    static int statusCode(Exception e) {
+        String message = e.getMessage();
+        if (message == null || !message.startsWith("Request failed")) {
+            return -1;
+        }
+        int code = -1;
+        for (int i = 14, length = message.length(); i < length; i++) {
+            char c = message.charAt(i);
+            if (c >= '0' && c <= '9') {
+                code = (code < 0 ? 0 : code * 10) + c - '0';
+            } else if (code >= 0) {
+                break;
+            }
+        }
+        return code;
+    }
+
+    /**
+     * get the host of a http or https uri.
+     *
+     * @return the host, or null if the uri is not a network uri.
+     */
+    static String host(String uri) {
+        if (uri == null || !uri.regionMatches(true, 0, "http", 0, 4)) {
+            return null;
+        }
+        int start = uri.indexOf("://");
+        if (start < 0) {
+            return null;
+        }
+        start += 3;
+        int end = start;
+        int length = uri.length();
+        while (end < length) {
+            char c = uri.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+        return end > start ? uri.substring(start, end) : null;
+    }
+
+    private static class State {
+        int failures;
+        long openUntil;
+    }
+}
@@ -0,0 +1,120 @@
+package com.zozx.glider;
+
+/**
+ * metrics of a glider request, reported to {@link GliderMetricsListener}.
+ * the times are in milliseconds, and -1 when unknown.
+ */
+@SuppressWarnings("unused")
+public final class LoadMetrics {
+
+    /**
+     * where the image is loaded from.
+     */
+    public enum Source {
+        /**
+         * the memory cache of glide.
+         */
+        MEMORY,
+        /**
+         * the disk cache of glide.
+         */
+        DISK,
+        /**
+         * the network, from a http or https uri.
+         */
+        NETWORK,
+        /**
+         * the local resource, file or content uri.
+         */
+        LOCAL,
+        /**
+         * unknown, such as the request failed or shared the decoding of another same request.
+         */
+        UNKNOWN
+    }
+
+    private final boolean success;
+    private final Object model;
+    private final TransformType transformType;
+    private final Source source;
+    private final long waitTime;
+    private final long decodeTime;
+    private final long totalTime;
+    private final int byteSize;
+    private final Exception failure;
+
+    LoadMetrics(boolean success, Object model, TransformType transformType, Source source, long waitTime, long decodeTime,
+                long totalTime, int byteSize, Exception failure) {
+        this.success = success;
+        this.model = model;
+        this.transformType = transformType;
+        this.source = source;
+        this.waitTime = waitTime;
+        this.decodeTime = decodeTime;
+        this.totalTime = totalTime;
+        this.byteSize = byteSize;
+        this.failure = failure;
+    }
+
+    /**
+     * @return the string uri or drawable resource of the request.
+     */
+    public Object model() {
+        return model;
+    }
+
+    public TransformType transformType() {
+        return transformType;
+    }
+
+    public Source source() {
+        return source;
+    }
+
+    /**
+     * @return the time from submitting the request to start decoding,
+     * including waiting for the view size, the executor queue and the fetching of the data.
+     */
+    public long waitTime() {
+        return waitTime;
+    }
+
+    /**
+     * @return the time of decoding the image, without transforming.
+     */
+    public long decodeTime() {
+        return decodeTime;
+    }
+
+    /**
+     * @return the time from submitting the request to the image ready or failed.
+     */
+    public long totalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return the byte size of the decoded bitmap, 0 if failed.
+     */
+    public int byteSize() {
+        return byteSize;
+    }
+
+    /**
+     * @return the cause of failure, null if succeeded or the cause is unknown.
+     */
+    public Exception failure() {
+        return failure;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadMetrics{success=" + success + ", model=" + model + ", transformType=" + transformType + ", source=" + source
+                + ", waitTime=" + waitTime + ", decodeTime=" + decodeTime + ", totalTime=" + totalTime
+                + ", byteSize=" + byteSize + ", failure=" + failure + '}';
+    }
+}
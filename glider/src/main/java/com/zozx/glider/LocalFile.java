@@ -0,0 +1,93 @@
+package com.zozx.glider;
+
+import android.os.SystemClock;
+import android.support.v4.util.LruCache;
+
+import java.io.File;
+
+/**
+ * the model of a local image file loaded by {@link LocalFileLoader}, the cache key has the last modified time
+ * and length of the file, so an edited file is loaded again.
+ * the cache key is built on main thread, so the time and length are cached by path and read from the disk only
+ * at the first load of the path, then checked again on the background thread, see {@link #stat(File)}.
+ */
+final class LocalFile {
+
+    private static final int MAX_SIZE = 512;
+    private static final long CHECK_INTERVAL = 1000;
+
+    private static final LruCache<String, Stat> STATS = new LruCache<>(MAX_SIZE);
+
+    final File file;
+
+    LocalFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the id of the source of the target size.
+     */
+    String cacheKey(int width, int height) {
+        Stat stat = stat(file);
+        // the source of a file depends on the target size, for the exif thumbnail.
+        return file.getAbsolutePath() + '@' + stat.lastModified + '@' + stat.length + '@' + width + 'x' + height;
+    }
+
+    /**
+     * read the file again, called by the fetcher on the loader thread.
+     */
+    void refresh() {
+        update(file);
+    }
+
+    @Override
+    public String toString() {
+        return file.toString();
+    }
+
+    /**
+     * get the cached state of the file, the state older than {@link #CHECK_INTERVAL} is checked again
+     * on the background thread, and the edit is seen by the loads after the check.
+     */
+    private static Stat stat(final File file) {
+        Stat stat = STATS.get(file.getAbsolutePath());
+        if (stat == null) {
+            return update(file);
+        }
+        long now = SystemClock.uptimeMillis();
+        if (now - stat.checkedAt > CHECK_INTERVAL) {
+            // checked once per interval even if the check is pending.
+            stat.checkedAt = now;
+            GliderExecutors.background().execute(new Runnable() {
+                @Override
+                public void run() {
+                    update(file);
+                }
+            });
+        }
+        return stat;
+    }
+
+    private static Stat update(File file) {
+        Stat stat = new Stat(file.lastModified(), file.length());
+        Stat cached = STATS.get(file.getAbsolutePath());
+        if (cached != null && cached.lastModified == stat.lastModified && cached.length == stat.length) {
+            cached.checkedAt = stat.checkedAt;
+            return cached;
+        }
+        STATS.put(file.getAbsolutePath(), stat);
+        return stat;
+    }
+
+    private static final class Stat {
+
+        final long lastModified;
+        final long length;
+        volatile long checkedAt = SystemClock.uptimeMillis();
+
+        Stat(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.zozx.glider;
+
+import android.graphics.BitmapFactory;
+import android.media.ExifInterface;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.stream.StreamModelLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * the loader of local image files used by {@link GliderOption.Builder#Builder(android.widget.ImageView, File)}.
+ * the embedded exif thumbnail of the camera jpeg is used when it is not smaller than the target size,
+ * otherwise the file is decoded by glide with downsampling and the exif orientation.
+ * the cache key of a file is its path, last modified time and length, so an edited file is loaded again,
+ * see {@link LocalFile}.
+ */
+final class LocalFileLoader implements StreamModelLoader<LocalFile> {
+
+    private static final LocalFileLoader INSTANCE = new LocalFileLoader();
+
+    // the jpeg segment with the only exif tag of orientation, the value is at ORIENTATION_OFFSET.
+    private static final byte[] ORIENTATION_SEGMENT = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42, 0, 0, 0, 8,
+            0, 1,
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 0, 0, 0,
+            0, 0, 0, 0
+    };
+    private static final int ORIENTATION_OFFSET = 29;
+
+    private LocalFileLoader() {
+    }
+
+    static LocalFileLoader get() {
+        return INSTANCE;
+    }
+
+    @Override
+    public DataFetcher<InputStream> getResourceFetcher(LocalFile model, int width, int height) {
+        return new Fetcher(model, width, height);
+    }
+
+    /**
+     * get the embedded exif thumbnail of the jpeg file if it covers the target size.
+     *
+     * @return the jpeg bytes of the thumbnail with the orientation of the file, or null.
+     */
+    static byte[] exifThumbnail(File file, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        ExifInterface exif;
+        try {
+            exif = new ExifInterface(file.getAbsolutePath());
+        } catch (IOException e) {
+            return null;
+        }
+        if (!exif.hasThumbnail()) {
+            return null;
+        }
+        byte[] thumbnail = exif.getThumbnail();
+        if (thumbnail == null || thumbnail.length < 2) {
+            return null;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(thumbnail, 0, thumbnail.length, options);
+        int orientation = exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        boolean rotated = orientation >= ExifInterface.ORIENTATION_TRANSPOSE;
+        int thumbnailWidth = rotated ? options.outHeight : options.outWidth;
+        int thumbnailHeight = rotated ? options.outWidth : options.outHeight;
+        if (thumbnailWidth < width || thumbnailHeight < height) {
+            return null;
+        }
+        if (orientation <= ExifInterface.ORIENTATION_NORMAL) {
+            return thumbnail;
+        }
+        // the thumbnail has no orientation of its own, insert the segment of the file orientation for the downsampler of glide.
+        byte[] oriented = new byte[thumbnail.length + ORIENTATION_SEGMENT.length];
+        oriented[0] = thumbnail[0];
+        oriented[1] = thumbnail[1];
+        System.arraycopy(ORIENTATION_SEGMENT, 0, oriented, 2, ORIENTATION_SEGMENT.length);
+        oriented[2 + ORIENTATION_OFFSET] = (byte) orientation;
+        System.arraycopy(thumbnail, 2, oriented, 2 + ORIENTATION_SEGMENT.length, thumbnail.length - 2);
+        return oriented;
+    }
+
+    private static class Fetcher implements DataFetcher<InputStream> {
+
+        private final LocalFile file;
+        private final int width;
+        private final int height;
+        private InputStream stream;
+
+        Fetcher(LocalFile file, int width, int height) {
+            this.file = file;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public InputStream loadData(Priority priority) throws Exception {
+            // the later loads see the edit of the file since the cache key was built.
+            file.refresh();
+            byte[] thumbnail = exifThumbnail(file.file, width, height);
+            stream = thumbnail != null ? new ByteArrayInputStream(thumbnail) : new FileInputStream(file.file);
+            return stream;
+        }
+
+        @Override
+        public void cleanup() {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    // ignored
+                }
+            }
+        }
+
+        @Override
+        public String getId() {
+            return file.cacheKey(width, height);
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
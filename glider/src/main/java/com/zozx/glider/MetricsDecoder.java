@@ -0,0 +1,39 @@
+package com.zozx.glider;
+
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+
+import java.io.IOException;
+
+/**
+ * decoder wrapper records the decode time of a request into its {@link RequestListenerWrapper}.
+ * the id is the same as the wrapped decoder, so the cache keys are not changed.
+ */
+class MetricsDecoder<T> implements ResourceDecoder<T, GifBitmapWrapper> {
+
+    private final ResourceDecoder<T, GifBitmapWrapper> decoder;
+    private final RequestListenerWrapper<?> listener;
+    private final boolean fromDisk;
+
+    MetricsDecoder(ResourceDecoder<T, GifBitmapWrapper> decoder, RequestListenerWrapper<?> listener, boolean fromDisk) {
+        this.decoder = decoder;
+        this.listener = listener;
+        this.fromDisk = fromDisk;
+    }
+
+    @Override
+    public Resource<GifBitmapWrapper> decode(T source, int width, int height) throws IOException {
+        listener.onDecodeStart(fromDisk);
+        try {
+            return decoder.decode(source, width, height);
+        } finally {
+            listener.onDecodeEnd();
+        }
+    }
+
+    @Override
+    public String getId() {
+        return decoder.getId();
+    }
+}
@@ -1,8 +1,14 @@
 package com.zozx.glider;
 
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.resource.bitmap.GlideBitmapDrawable;
 import com.bumptech.glide.load.resource.drawable.GlideDrawable;
+import com.bumptech.glide.load.resource.gif.GifDrawable;
+import com.bumptech.glide.request.Request;
 import com.bumptech.glide.request.RequestListener;
 import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.util.Util;
 
 /**
  * Created by zozx on 16/9/2.
@@ -11,26 +17,205 @@ import com.bumptech.glide.request.target.Target;
 class RequestListenerWrapper<T> implements RequestListener<T, GlideDrawable> {
 
     private final GliderListener listener;
+    private final GliderMetricsListener metricsListener;
+    private final GliderMetricsListener globalMetrics;
+    private final TransformType transformType;
+    private final GliderRetryPolicy retryPolicy;
+    private final HostCircuitBreaker circuitBreaker;
+    private final ColorCache colors;
+    private final String colorKey;
+    private final long submitTime;
+    private int attempts = 1;
+    private volatile long decodeStartTime;
+    private volatile long decodeEndTime;
+    private volatile boolean decodeFromDisk;
+    private volatile boolean fetched;
+    private volatile Exception fetchError;
 
     public RequestListenerWrapper(GliderListener listener) {
+        this(listener, null, null, TransformType.NONE, null, null, null, null);
+    }
+
+    public RequestListenerWrapper(GliderListener listener, GliderMetricsListener metricsListener,
+                                  GliderMetricsListener globalMetrics, TransformType transformType,
+                                  GliderRetryPolicy retryPolicy, HostCircuitBreaker circuitBreaker,
+                                  ColorCache colors, String colorKey) {
         this.listener = listener;
+        this.metricsListener = metricsListener;
+        this.globalMetrics = globalMetrics;
+        this.transformType = transformType;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.colors = colors;
+        this.colorKey = colorKey;
+        this.submitTime = System.nanoTime();
+    }
+
+    boolean tracksMetrics() {
+        return metricsListener != null || globalMetrics != null;
+    }
+
+    void onDecodeStart(boolean fromDisk) {
+        decodeFromDisk = fromDisk;
+        decodeStartTime = System.nanoTime();
+    }
+
+    void onDecodeEnd() {
+        decodeEndTime = System.nanoTime();
+    }
+
+    /**
+     * @return true if the fetches of the network request should be tracked by {@link FetchTrackingLoader}.
+     */
+    boolean tracksFetch() {
+        return retryPolicy != null || circuitBreaker != null;
+    }
+
+    void onFetched() {
+        fetched = true;
+    }
+
+    void onFetchFailed(Exception e) {
+        fetchError = e;
     }
 
     @Override
     public boolean onException(Exception e, T model, Target<GlideDrawable> target, boolean isFirstResource) {
+        // only the failed fetches except the client errors are worth counting and retrying.
+        Exception fetchError = this.fetchError;
+        boolean hostFailure = isNetwork(model) && fetchError != null && HostCircuitBreaker.isHostFailure(fetchError);
+        if (hostFailure && circuitBreaker != null) {
+            circuitBreaker.onFailure(uri(model));
+        }
+        if (hostFailure && retry(target)) {
+            // keep the placeholder until the last attempt.
+            return true;
+        }
         if (listener != null) {
             listener.onFailed();
         }
+        if (tracksMetrics()) {
+            report(new LoadMetrics(false, model, transformType, LoadMetrics.Source.UNKNOWN,
+                    waitTime(), decodeTime(), millis(System.nanoTime() - submitTime), 0, e));
+        }
         // return false only, glide will handle the image.
         return false;
     }
 
     @Override
     public boolean onResourceReady(GlideDrawable resource, T model, Target<GlideDrawable> target, boolean isFromMemoryCache, boolean isFirstResource) {
+        if (fetched && circuitBreaker != null && isNetwork(model)) {
+            circuitBreaker.onSuccess(uri(model));
+        }
+        if (colors != null) {
+            colors.update(colorKey, bitmapOf(resource));
+        }
         if (listener != null) {
             listener.onReady();
         }
+        if (tracksMetrics()) {
+            report(new LoadMetrics(true, model, transformType, source(model, isFromMemoryCache),
+                    waitTime(), decodeTime(), millis(System.nanoTime() - submitTime), byteSize(resource), null));
+        }
         // return false only, glide will handle the image.
         return false;
     }
+
+    /**
+     * schedule the retry of the failed request of the target on main thread, if the policy allows.
+     * the retry is skipped when the target is bound to another request, or the request is cleared.
+     *
+     * @return true if the retry is scheduled.
+     */
+    private boolean retry(final Target<GlideDrawable> target) {
+        if (retryPolicy == null || attempts >= retryPolicy.maxAttempts()) {
+            return false;
+        }
+        final Request request = target.getRequest();
+        if (request == null) {
+            return false;
+        }
+        long delay = retryPolicy.delayMillis(attempts);
+        attempts++;
+        GliderExecutors.main().postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (target.getRequest() == request && request.isFailed()) {
+                    decodeStartTime = 0;
+                    decodeEndTime = 0;
+                    fetched = false;
+                    fetchError = null;
+                    request.begin();
+                }
+            }
+        }, delay);
+        return true;
+    }
+
+    private void report(LoadMetrics metrics) {
+        if (metricsListener != null) {
+            metricsListener.onMetrics(metrics);
+        }
+        if (globalMetrics != null) {
+            globalMetrics.onMetrics(metrics);
+        }
+    }
+
+    private LoadMetrics.Source source(T model, boolean isFromMemoryCache) {
+        if (isFromMemoryCache) {
+            return LoadMetrics.Source.MEMORY;
+        }
+        if (decodeStartTime == 0) {
+            return LoadMetrics.Source.UNKNOWN;
+        }
+        if (decodeFromDisk) {
+            return LoadMetrics.Source.DISK;
+        }
+        if (isNetwork(model)) {
+            return LoadMetrics.Source.NETWORK;
+        }
+        return LoadMetrics.Source.LOCAL;
+    }
+
+    private static boolean isNetwork(Object model) {
+        String uri = uri(model);
+        return uri != null && uri.regionMatches(true, 0, "http", 0, 4);
+    }
+
+    private static String uri(Object model) {
+        if (model instanceof String) {
+            return (String) model;
+        }
+        if (model instanceof GliderUrl) {
+            return ((GliderUrl) model).uri;
+        }
+        return null;
+    }
+
+    private long waitTime() {
+        return decodeStartTime == 0 ? -1 : millis(decodeStartTime - submitTime);
+    }
+
+    private long decodeTime() {
+        return decodeEndTime == 0 ? -1 : millis(decodeEndTime - decodeStartTime);
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1000000;
+    }
+
+    private static int byteSize(GlideDrawable resource) {
+        Bitmap bitmap = bitmapOf(resource);
+        return bitmap != null ? Util.getBitmapByteSize(bitmap) : 0;
+    }
+
+    private static Bitmap bitmapOf(GlideDrawable resource) {
+        if (resource instanceof GlideBitmapDrawable) {
+            return ((GlideBitmapDrawable) resource).getBitmap();
+        }
+        if (resource instanceof GifDrawable) {
+            return ((GifDrawable) resource).getFirstFrame();
+        }
+        return null;
+    }
 }
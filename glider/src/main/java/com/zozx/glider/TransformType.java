@@ -5,9 +5,24 @@ package com.zozx.glider;
  * transform type for build {@link GliderOption}
  */
 public enum TransformType {
-    NONE,
-    CIRCLE,
-    ROUND,
-    SQUARE,
-    SQUARE_ROUND
+    NONE(false),
+    CIRCLE(true),
+    ROUND(true),
+    SQUARE(false),
+    SQUARE_ROUND(true);
+
+    private final boolean transparent;
+
+    TransformType(boolean transparent) {
+        this.transparent = transparent;
+    }
+
+    /**
+     * whether the transformed image has transparent pixels, such as the corners.
+     *
+     * @return true if the image needs alpha channel.
+     */
+    public boolean isTransparent() {
+        return transparent;
+    }
 }
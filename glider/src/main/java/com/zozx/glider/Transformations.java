@@ -0,0 +1,84 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperTransformation;
+
+/**
+ * registry of shared transformations used by {@link Glider}.
+ * the transformations only hold the bitmap pool of glide, so one instance can serve every request
+ * with the same {@link TransformType} and radius from any thread.
+ * the registry is a least recently used cache keyed by int without boxing,
+ * so getting a registered transformation allocates nothing.
+ */
+final class Transformations {
+
+    static final int MAX_SIZE = 32;
+
+    private static final Object LOCK = new Object();
+    // the slots of the cache, a linear scan of a few slots is cheaper than a map.
+    private static final int[] KEYS = new int[MAX_SIZE];
+    private static final long[] LAST_USES = new long[MAX_SIZE];
+    @SuppressWarnings("unchecked")
+    private static final Transformation<GifBitmapWrapper>[][] VALUES = new Transformation[MAX_SIZE][];
+    private static int size;
+    private static long clock;
+
+    private Transformations() {
+    }
+
+    /**
+     * get the shared transformations for the given transform type and radius.
+     *
+     * @param context the context to get the bitmap pool.
+     * @param type    the transform type.
+     * @param radius  the round corner radius px, ignored by the types without corner.
+     * @return the transformations, or null when the type is {@link TransformType#NONE}.
+     */
+    static Transformation<GifBitmapWrapper>[] get(Context context, TransformType type, int radius) {
+        if (type == TransformType.NONE) {
+            return null;
+        }
+        if (type != TransformType.ROUND && type != TransformType.SQUARE_ROUND) {
+            radius = 0;
+        }
+        int key = (radius << 3) | type.ordinal();
+        synchronized (LOCK) {
+            for (int i = 0; i < size; i++) {
+                if (KEYS[i] == key) {
+                    LAST_USES[i] = ++clock;
+                    return VALUES[i];
+                }
+            }
+            int slot = size;
+            if (size < MAX_SIZE) {
+                size++;
+            } else {
+                // evict the least recently used.
+                slot = 0;
+                for (int i = 1; i < MAX_SIZE; i++) {
+                    if (LAST_USES[i] < LAST_USES[slot]) {
+                        slot = i;
+                    }
+                }
+            }
+            Transformation<GifBitmapWrapper>[] transformations = create(context.getApplicationContext(), type, radius);
+            KEYS[slot] = key;
+            VALUES[slot] = transformations;
+            LAST_USES[slot] = ++clock;
+            return transformations;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Transformation<GifBitmapWrapper>[] create(Context context, TransformType type, int radius) {
+        BitmapPool pool = Glide.get(context).getBitmapPool();
+        Transformation<Bitmap> transformation = new CropShapeTransformation(pool, type, radius);
+        return new Transformation[]{new GifBitmapWrapperTransformation(pool, transformation)};
+    }
+}
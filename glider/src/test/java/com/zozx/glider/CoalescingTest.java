@@ -0,0 +1,99 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.util.Base64;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the concurrent loads of the same option and size are coalesced by the engine of glide into one fetch.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CoalescingTest {
+
+    /**
+     * a 1x1 png.
+     */
+    private static final String PNG = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8DwHwAFBQIAX8jx0gAAAABJRU5ErkJggg==";
+    private static final int SIZE = 100;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        // the engine of glide logs the load joined to the one in flight.
+        ShadowLog.stream = new PrintStream(new ByteArrayOutputStream());
+        server = new MockWebServer();
+        // the fetch is held until both loads started, so the second load starts while the first is in flight.
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setBody(new Buffer().write(Base64.decode(PNG, Base64.DEFAULT)));
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        server.shutdown();
+        ShadowLog.stream = null;
+    }
+
+    @Test
+    public void identicalLoadsHitTheNetworkOnce() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        String url = server.url("/avatar.png").toString();
+        GliderOption option = new GliderOption.Builder(url)
+                .transformCircle()
+                .diskCacheStrategy(DiskCacheStrategy.NONE)
+                .create();
+
+        assertNotNull(Glider.preload(context, option, SIZE, SIZE));
+        assertNotNull(Glider.preload(context, option, SIZE, SIZE));
+        assertTrue(joinedTheLoadInFlight());
+
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals(1, server.getRequestCount());
+        Glide.get(context).clearMemory();
+    }
+
+    private static boolean joinedTheLoadInFlight() {
+        for (ShadowLog.LogItem item : ShadowLog.getLogsForTag("Engine")) {
+            if (item.msg.startsWith("Added to existing load")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.zozx.glider;
+
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.model.ImageVideoWrapper;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class DecodeFormatTest {
+
+    private static final String URI = "http://img.example.com/a.jpg";
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 120;
+
+    @After
+    public void tearDown() {
+        Glider.setDefaultDecodeFormat(null);
+    }
+
+    @Test
+    public void keepsTheFormatOfGlideIfNothingIsSet() {
+        for (TransformType type : TransformType.values()) {
+            assertEquals(DecodeFormat.DEFAULT, Glider.decodeFormat(option(type, null)));
+        }
+    }
+
+    @Test
+    public void promotesOnlyTheTransparentTypesSetToRgb565() {
+        assertEquals(DecodeFormat.PREFER_RGB_565, Glider.decodeFormat(option(TransformType.NONE, DecodeFormat.PREFER_RGB_565)));
+        assertEquals(DecodeFormat.PREFER_RGB_565, Glider.decodeFormat(option(TransformType.SQUARE, DecodeFormat.PREFER_RGB_565)));
+        assertEquals(DecodeFormat.PREFER_ARGB_8888, Glider.decodeFormat(option(TransformType.CIRCLE, DecodeFormat.PREFER_RGB_565)));
+        assertEquals(DecodeFormat.PREFER_ARGB_8888, Glider.decodeFormat(option(TransformType.ROUND, DecodeFormat.PREFER_RGB_565)));
+        assertEquals(DecodeFormat.PREFER_ARGB_8888, Glider.decodeFormat(option(TransformType.SQUARE_ROUND, DecodeFormat.PREFER_RGB_565)));
+    }
+
+    @Test
+    public void theOptionOverridesTheDefault() {
+        Glider.setDefaultDecodeFormat(DecodeFormat.PREFER_RGB_565);
+        assertEquals(DecodeFormat.PREFER_RGB_565, Glider.decodeFormat(option(TransformType.SQUARE, null)));
+        assertEquals(DecodeFormat.PREFER_ARGB_8888, Glider.decodeFormat(option(TransformType.CIRCLE, null)));
+        assertEquals(DecodeFormat.PREFER_ARGB_8888, Glider.decodeFormat(option(TransformType.SQUARE, DecodeFormat.PREFER_ARGB_8888)));
+    }
+
+    @Test
+    public void rgb565HalvesTheMemoryOfOpaqueImages() throws Exception {
+        Bitmap rgb565 = decode(option(TransformType.SQUARE, DecodeFormat.PREFER_RGB_565));
+        assertEquals(Bitmap.Config.RGB_565, rgb565.getConfig());
+        assertEquals(rgb565.getWidth() * rgb565.getHeight() * 2, rgb565.getByteCount());
+
+        Bitmap argb8888 = decode(option(TransformType.SQUARE, DecodeFormat.PREFER_ARGB_8888));
+        assertEquals(Bitmap.Config.ARGB_8888, argb8888.getConfig());
+        assertEquals(argb8888.getWidth() * argb8888.getHeight() * 4, argb8888.getByteCount());
+
+        assertEquals(Bitmap.Config.ARGB_8888, decode(option(TransformType.CIRCLE, DecodeFormat.PREFER_RGB_565)).getConfig());
+    }
+
+    /**
+     * decode an opaque png with the decoders chosen for the option, as {@link Glider#load(GliderOption)} does.
+     */
+    private static Bitmap decode(GliderOption option) throws IOException {
+        Decoders decoders = Decoders.get(RuntimeEnvironment.application, Downsampler.AT_LEAST, Glider.decodeFormat(option), false);
+        Resource<GifBitmapWrapper> resource = decoders.source.decode(new ImageVideoWrapper(opaquePng(), null), WIDTH, HEIGHT);
+        assertNotNull(resource);
+        return resource.get().getBitmapResource().get();
+    }
+
+    private static InputStream opaquePng() throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private static GliderOption option(TransformType type, DecodeFormat format) {
+        GliderOption.Builder builder = new GliderOption.Builder(URI).decodeFormat(format);
+        switch (type) {
+            case CIRCLE:
+                builder.transformCircle();
+                break;
+            case ROUND:
+                builder.transformRound(10);
+                break;
+            case SQUARE:
+                builder.transformSquare();
+                break;
+            case SQUARE_ROUND:
+                builder.transformSquareRound(10);
+                break;
+            default:
+                break;
+        }
+        return builder.create();
+    }
+}
@@ -0,0 +1,75 @@
+package com.zozx.glider;
+
+import android.content.Context;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.bitmap.FileDescriptorBitmapDecoder;
+import com.bumptech.glide.load.resource.bitmap.ImageVideoBitmapDecoder;
+import com.bumptech.glide.load.resource.bitmap.StreamBitmapDecoder;
+import com.bumptech.glide.load.resource.gif.GifResourceDecoder;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapperResourceDecoder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class DecodersTest {
+
+    @Test
+    public void sharesTheDecodersOfTheSameStrategy() {
+        Context context = RuntimeEnvironment.application;
+        assertSame(Decoders.get(context, Downsampler.NONE, DecodeFormat.DEFAULT, false),
+                Decoders.get(context, Downsampler.NONE, DecodeFormat.DEFAULT, false));
+    }
+
+    @Test
+    public void downsamplersHaveDifferentKeys() {
+        Context context = RuntimeEnvironment.application;
+        Decoders atLeast = Decoders.get(context, Downsampler.AT_LEAST, DecodeFormat.DEFAULT, false);
+        Decoders none = Decoders.get(context, Downsampler.NONE, DecodeFormat.DEFAULT, false);
+        Decoders atMost = Decoders.get(context, Downsampler.AT_MOST, DecodeFormat.DEFAULT, false);
+        assertNotEquals(atLeast.source.getId(), none.source.getId());
+        assertNotEquals(atLeast.cache.getId(), none.cache.getId());
+        assertNotEquals(none.source.getId(), atMost.source.getId());
+        assertNotEquals(none.cache.getId(), atMost.cache.getId());
+    }
+
+    @Test
+    public void formatsHaveDifferentKeys() {
+        Context context = RuntimeEnvironment.application;
+        Decoders rgb565 = Decoders.get(context, Downsampler.AT_LEAST, DecodeFormat.PREFER_RGB_565, false);
+        Decoders argb8888 = Decoders.get(context, Downsampler.AT_LEAST, DecodeFormat.PREFER_ARGB_8888, false);
+        assertNotEquals(rgb565.source.getId(), argb8888.source.getId());
+        assertNotEquals(rgb565.cache.getId(), argb8888.cache.getId());
+    }
+
+    @Test
+    public void staticGifHasADifferentKey() {
+        Context context = RuntimeEnvironment.application;
+        assertNotEquals(Decoders.get(context, Downsampler.AT_LEAST, DecodeFormat.DEFAULT, false).cache.getId(),
+                Decoders.get(context, Downsampler.AT_LEAST, DecodeFormat.DEFAULT, true).cache.getId());
+    }
+
+    @Test
+    public void theDefaultStrategyKeepsTheKeysOfGlide() {
+        Context context = RuntimeEnvironment.application;
+        // the metrics decoders use them, so the tracked and untracked requests share the cache.
+        Decoders defaults = Decoders.get(context, Downsampler.AT_LEAST, DecodeFormat.DEFAULT, false);
+        BitmapPool pool = Glide.get(context).getBitmapPool();
+        GifBitmapWrapperResourceDecoder glide = new GifBitmapWrapperResourceDecoder(
+                new ImageVideoBitmapDecoder(new StreamBitmapDecoder(pool), new FileDescriptorBitmapDecoder(pool, DecodeFormat.DEFAULT)),
+                new GifResourceDecoder(context, pool), pool);
+        assertEquals(glide.getId(), defaults.source.getId());
+    }
+}
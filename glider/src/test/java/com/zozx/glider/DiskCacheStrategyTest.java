@@ -0,0 +1,42 @@
+package com.zozx.glider;
+
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class DiskCacheStrategyTest {
+
+    private static final int RES = android.R.drawable.ic_menu_gallery;
+
+    @After
+    public void tearDown() {
+        Glider.setDefaultDiskCacheStrategy(TransformType.CIRCLE, null);
+    }
+
+    @Test
+    public void profilesBoundToResourcesAreNotCachedInDisk() {
+        GliderOption profile = new GliderOption.Builder().transformCircle().create();
+        assertEquals(DiskCacheStrategy.ALL, profile.diskCacheStrategy(0));
+        assertEquals(DiskCacheStrategy.NONE, profile.diskCacheStrategy(RES));
+
+        Glider.setDefaultDiskCacheStrategy(TransformType.CIRCLE, DiskCacheStrategy.RESULT);
+        assertEquals(DiskCacheStrategy.RESULT, profile.diskCacheStrategy(0));
+        assertEquals(DiskCacheStrategy.NONE, profile.diskCacheStrategy(RES));
+    }
+
+    @Test
+    public void theStrategySetByTheBuilderIsKept() {
+        GliderOption profile = new GliderOption.Builder().diskCacheStrategy(DiskCacheStrategy.SOURCE).create();
+        assertEquals(DiskCacheStrategy.SOURCE, profile.diskCacheStrategy(0));
+        assertEquals(DiskCacheStrategy.SOURCE, profile.diskCacheStrategy(RES));
+        assertEquals(DiskCacheStrategy.NONE, new GliderOption.Builder(RES).create().diskCacheStrategy(RES));
+    }
+}
@@ -0,0 +1,50 @@
+package com.zozx.glider;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class GliderFutureTest {
+
+    @Test
+    public void failsTheFutureOfANullOption() throws Exception {
+        final Exception[] failure = new Exception[1];
+        GliderFuture future = Glider.get(RuntimeEnvironment.application, null, 100, 100, new GliderFuture.Callback() {
+            @Override
+            public void onBitmap(Bitmap bitmap) {
+                fail("the load of a null option should fail");
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                failure[0] = e;
+            }
+        });
+
+        assertTrue(future.isDone());
+        assertTrue(failure[0] instanceof IllegalArgumentException);
+        try {
+            future.get();
+            fail("the load of a null option should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void failsTheFutureOfANullContext() {
+        GliderFuture future = Glider.get(null, new GliderOption.Builder("http://img.example.com/a.jpg").create(), 100, 100);
+        assertTrue(future.isDone());
+    }
+}
@@ -0,0 +1,50 @@
+package com.zozx.glider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GliderMetricsTest {
+
+    @Test
+    public void bucketsAreExactBelow64Millis() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, GliderMetrics.Histogram.value(GliderMetrics.Histogram.index(value)));
+        }
+    }
+
+    @Test
+    public void bucketsAreWithin3PercentAbove() {
+        for (long value = 64; value < 30L * 24 * 3600 * 1000 / 2; value = value * 17 / 16 + 1) {
+            long bucket = GliderMetrics.Histogram.value(GliderMetrics.Histogram.index(value));
+            assertTrue(value + " -> " + bucket, Math.abs(bucket - value) <= value * 0.03);
+        }
+    }
+
+    @Test
+    public void bucketsAreContinuous() {
+        int last = GliderMetrics.Histogram.index(0);
+        for (long value = 1; value < 1 << 20; value++) {
+            int index = GliderMetrics.Histogram.index(value);
+            assertTrue(index == last || index == last + 1);
+            last = index;
+        }
+    }
+
+    @Test
+    public void percentilesOfSlowLoads() {
+        GliderMetrics.Histogram histogram = new GliderMetrics.Histogram();
+        assertEquals(-1, histogram.percentile(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 100);
+        }
+        assertWithin(5000, histogram.percentile(50));
+        assertWithin(9900, histogram.percentile(99));
+        assertWithin(10000, histogram.percentile(100));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(expected + " -> " + actual, Math.abs(expected - actual) <= expected * 0.03);
+    }
+}
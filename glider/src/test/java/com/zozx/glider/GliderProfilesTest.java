@@ -0,0 +1,41 @@
+package com.zozx.glider;
+
+import android.content.Context;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class GliderProfilesTest {
+
+    @Test
+    public void sharesTheRoundProfilesOfTheSameRadius() {
+        Context context = RuntimeEnvironment.application;
+        GliderOption round = Glider.roundProfile(context, TransformType.ROUND, 5, false);
+        assertSame(round, Glider.roundProfile(context, TransformType.ROUND, 5, false));
+        assertEquals(TransformType.ROUND, round.transformType());
+        assertEquals(Glider.dpToPx(context, 5), round.radius());
+
+        assertNotSame(round, Glider.roundProfile(context, TransformType.ROUND, 6, false));
+        assertNotSame(round, Glider.roundProfile(context, TransformType.ROUND, 5, true));
+        GliderOption squareRound = Glider.roundProfile(context, TransformType.SQUARE_ROUND, 5, false);
+        assertNotSame(round, squareRound);
+        assertEquals(TransformType.SQUARE_ROUND, squareRound.transformType());
+    }
+
+    @Test
+    public void sharesTheCircleProfilesOfTheSameErrorDrawable() {
+        GliderOption circle = Glider.circleProfile(android.R.drawable.ic_delete);
+        assertSame(circle, Glider.circleProfile(android.R.drawable.ic_delete));
+        assertNotSame(circle, Glider.circleProfile(android.R.drawable.ic_dialog_alert));
+        assertEquals(TransformType.CIRCLE, circle.transformType());
+    }
+}
@@ -0,0 +1,48 @@
+package com.zozx.glider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GliderRetryPolicyTest {
+
+    @Test
+    public void delayGrowsExponentiallyWithJitter() {
+        GliderRetryPolicy policy = new GliderRetryPolicy(5, 100, 10000);
+        for (int i = 0; i < 100; i++) {
+            assertBetween(50, 100, policy.delayMillis(1));
+            assertBetween(100, 200, policy.delayMillis(2));
+            assertBetween(200, 400, policy.delayMillis(3));
+        }
+    }
+
+    @Test
+    public void delayIsCappedByMax() {
+        GliderRetryPolicy policy = new GliderRetryPolicy(100, 100, 1000);
+        for (int retry = 1; retry < 100; retry++) {
+            assertTrue(policy.delayMillis(retry) <= 1000);
+        }
+        assertBetween(500, 1000, policy.delayMillis(64));
+    }
+
+    @Test
+    public void maxAttemptsIncludesTheFirstLoad() {
+        assertEquals(3, new GliderRetryPolicy(3, 0, 0).maxAttempts());
+        assertEquals(0, new GliderRetryPolicy(1, 0, 0).delayMillis(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNoAttempt() {
+        new GliderRetryPolicy(0, 100, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMaxDelayBelowInitialDelay() {
+        new GliderRetryPolicy(3, 1000, 100);
+    }
+
+    private static void assertBetween(long min, long max, long value) {
+        assertTrue(value + " not in [" + min + ", " + max + "]", value >= min && value <= max);
+    }
+}
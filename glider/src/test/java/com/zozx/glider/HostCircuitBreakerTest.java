@@ -0,0 +1,169 @@
+package com.zozx.glider;
+
+import android.os.SystemClock;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.data.HttpUrlFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class HostCircuitBreakerTest {
+
+    private static final String URL = "http://img.example.com/a.jpg";
+
+    @Test
+    public void parsesTheHostOfNetworkUris() {
+        assertEquals("img.example.com", HostCircuitBreaker.host("http://img.example.com/a.jpg"));
+        assertEquals("img.example.com:8080", HostCircuitBreaker.host("HTTPS://img.example.com:8080?w=100"));
+        assertEquals("img.example.com", HostCircuitBreaker.host("https://img.example.com#top"));
+        assertEquals("img.example.com", HostCircuitBreaker.host("https://img.example.com"));
+        assertNull(HostCircuitBreaker.host("file:///sdcard/a.jpg"));
+        assertNull(HostCircuitBreaker.host("http://"));
+        assertNull(HostCircuitBreaker.host("httpfoo"));
+        assertNull(HostCircuitBreaker.host(null));
+    }
+
+    @Test
+    public void opensAfterTheThresholdOfFailures() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(3, 1000);
+        breaker.onFailure(URL);
+        breaker.onFailure(URL);
+        assertFalse(breaker.isOpen(URL));
+        breaker.onFailure(URL);
+        assertTrue(breaker.isOpen(URL));
+        assertTrue(breaker.isOpen("http://img.example.com/b.jpg"));
+        assertFalse(breaker.isOpen("http://cdn.example.com/a.jpg"));
+    }
+
+    @Test
+    public void successResetsTheFailures() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(2, 1000);
+        breaker.onFailure(URL);
+        breaker.onSuccess(URL);
+        breaker.onFailure(URL);
+        assertFalse(breaker.isOpen(URL));
+    }
+
+    @Test
+    public void halfOpenLetsOneLoadThrough() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(1, 1000);
+        breaker.onFailure(URL);
+        assertTrue(breaker.isOpen(URL));
+
+        SystemClock.sleep(1001);
+        assertFalse(breaker.isOpen(URL));
+        assertTrue(breaker.isOpen(URL));
+
+        // the load let through failed, the circuit opens again.
+        breaker.onFailure(URL);
+        assertTrue(breaker.isOpen(URL));
+
+        SystemClock.sleep(1001);
+        assertFalse(breaker.isOpen(URL));
+        breaker.onSuccess(URL);
+        assertFalse(breaker.isOpen(URL));
+        assertFalse(breaker.isOpen(URL));
+    }
+
+    @Test
+    public void listenerCountsOnlyTheFailedFetchesOfTheHost() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(1, 1000);
+        Exception notFound = new IOException("Request failed 404: Not Found");
+        RequestListenerWrapper<String> listener = newListener(breaker);
+        listener.onFetchFailed(notFound);
+        listener.onException(notFound, URL, null, true);
+        assertFalse(breaker.isOpen(URL));
+
+        // the image failed to decode after a fetch.
+        listener = newListener(breaker);
+        listener.onFetched();
+        listener.onException(null, URL, null, true);
+        assertFalse(breaker.isOpen(URL));
+
+        Exception timeout = new SocketTimeoutException("timeout");
+        listener = newListener(breaker);
+        listener.onFetchFailed(timeout);
+        listener.onException(timeout, URL, null, true);
+        assertTrue(breaker.isOpen(URL));
+    }
+
+    @Test
+    public void listenerResetsTheFailuresOnlyByFetches() {
+        HostCircuitBreaker breaker = new HostCircuitBreaker(2, 1000);
+        breaker.onFailure(URL);
+
+        // loaded from the disk cache, without a fetch.
+        newListener(breaker).onResourceReady(null, URL, null, false, true);
+        breaker.onFailure(URL);
+        assertTrue(breaker.isOpen(URL));
+
+        SystemClock.sleep(1001);
+        assertFalse(breaker.isOpen(URL));
+        RequestListenerWrapper<String> listener = newListener(breaker);
+        listener.onFetched();
+        listener.onResourceReady(null, URL, null, false, true);
+        breaker.onFailure(URL);
+        assertFalse(breaker.isOpen(URL));
+    }
+
+    @Test
+    public void classifiesTheMessagesOfStatusCodes() {
+        assertEquals(404, HostCircuitBreaker.statusCode(new IOException("Request failed 404: Not Found")));
+        assertEquals(503, HostCircuitBreaker.statusCode(new IOException("Request failed with code: 503")));
+        assertEquals(-1, HostCircuitBreaker.statusCode(new IOException("Request failed")));
+        assertEquals(-1, HostCircuitBreaker.statusCode(new IOException()));
+        assertFalse(HostCircuitBreaker.isHostFailure(new IOException("Request failed with code: 403")));
+        assertTrue(HostCircuitBreaker.isHostFailure(new IOException("Request failed 500: Internal Server Error")));
+        assertTrue(HostCircuitBreaker.isHostFailure(new SocketTimeoutException("timeout")));
+    }
+
+    @Test
+    public void classifiesTheFailuresOfTheFetcherOfGlide() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.start();
+        String url = server.url("/a.jpg").toString();
+
+        assertFalse(HostCircuitBreaker.isHostFailure(fetch(url)));
+        assertTrue(HostCircuitBreaker.isHostFailure(fetch(url)));
+
+        server.shutdown();
+        assertTrue(HostCircuitBreaker.isHostFailure(fetch(url)));
+    }
+
+    private static RequestListenerWrapper<String> newListener(HostCircuitBreaker breaker) {
+        return new RequestListenerWrapper<>(null, null, null, TransformType.NONE, null, breaker, null, null);
+    }
+
+    private static Exception fetch(String url) {
+        HttpUrlFetcher fetcher = new HttpUrlFetcher(new GlideUrl(url));
+        try {
+            fetcher.loadData(Priority.NORMAL);
+        } catch (Exception e) {
+            return e;
+        } finally {
+            fetcher.cleanup();
+        }
+        fail("the fetch of " + url + " should fail");
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.zozx.glider;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import com.bumptech.glide.load.Transformation;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPoolAdapter;
+import com.bumptech.glide.load.resource.gifbitmap.GifBitmapWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class TransformationsTest {
+
+    private static final int ITERATIONS = 10000;
+
+    @Test
+    public void sharesTheTransformationsOfTheSameShape() {
+        Context context = RuntimeEnvironment.application;
+        assertNull(Transformations.get(context, TransformType.NONE, 0));
+        assertSame(Transformations.get(context, TransformType.ROUND, 20), Transformations.get(context, TransformType.ROUND, 20));
+        assertNotSame(Transformations.get(context, TransformType.ROUND, 20), Transformations.get(context, TransformType.ROUND, 30));
+        assertNotSame(Transformations.get(context, TransformType.ROUND, 20), Transformations.get(context, TransformType.SQUARE_ROUND, 20));
+        // the radius is ignored by the shapes without corner.
+        assertSame(Transformations.get(context, TransformType.CIRCLE, 20), Transformations.get(context, TransformType.CIRCLE, 30));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsed() {
+        Context context = RuntimeEnvironment.application;
+        Transformation<GifBitmapWrapper>[] used = Transformations.get(context, TransformType.ROUND, 1000);
+        Transformation<GifBitmapWrapper>[] unused = Transformations.get(context, TransformType.ROUND, 1001);
+        for (int i = 0; i < Transformations.MAX_SIZE; i++) {
+            assertSame(used, Transformations.get(context, TransformType.ROUND, 1000));
+            Transformations.get(context, TransformType.ROUND, 1002 + i);
+        }
+        assertSame(used, Transformations.get(context, TransformType.ROUND, 1000));
+        assertNotSame(unused, Transformations.get(context, TransformType.ROUND, 1001));
+    }
+
+    @Test
+    public void allocatesNothingAfterWarmUp() {
+        Context context = RuntimeEnvironment.application;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long thread = Thread.currentThread().getId();
+
+        Transformation<GifBitmapWrapper>[] warmedUp = Transformations.get(context, TransformType.SQUARE_ROUND, 200);
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            Transformations.get(context, TransformType.SQUARE_ROUND, 200);
+        }
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        assertSame(warmedUp, Transformations.get(context, TransformType.SQUARE_ROUND, 200));
+        // less than a byte per call, the rest is of the measure itself.
+        assertTrue(allocated + " bytes", allocated < ITERATIONS);
+    }
+
+    @Test
+    public void cropsToTheSizeOfTheShape() {
+        Bitmap source = Bitmap.createBitmap(200, 100, Bitmap.Config.RGB_565);
+
+        Bitmap circle = transform(TransformType.CIRCLE, source, 80, 80);
+        assertSize(80, 80, circle);
+        assertEquals(Bitmap.Config.ARGB_8888, circle.getConfig());
+
+        // the square is not larger than the image.
+        assertSize(100, 100, transform(TransformType.SQUARE, source, 300, 300));
+        // the square is not larger than the larger side of the target.
+        assertSize(60, 60, transform(TransformType.SQUARE_ROUND, source, 60, 40));
+        assertSize(120, 60, transform(TransformType.ROUND, source, 120, 60));
+    }
+
+    @Test
+    public void keepsTheOpaqueSquareOfTheSameSize() {
+        Bitmap source = Bitmap.createBitmap(100, 100, Bitmap.Config.RGB_565);
+        assertSame(source, transform(TransformType.SQUARE, source, 100, 100));
+    }
+
+    private static Bitmap transform(TransformType type, Bitmap source, int width, int height) {
+        BitmapPoolAdapter pool = new BitmapPoolAdapter();
+        return new CropShapeTransformation(pool, type, 10).transform(pool, source, width, height);
+    }
+
+    private static void assertSize(int width, int height, Bitmap bitmap) {
+        assertEquals(width, bitmap.getWidth());
+        assertEquals(height, bitmap.getHeight());
+    }
+}